@@ -0,0 +1,13 @@
+-- Migration: Add indexes backing the filtered/paginated /api/all_orders query
+-- Staff screens poll by status (and sometimes by table), newest first, using
+-- order_id as the keyset cursor. These indexes keep each poll proportional to
+-- the number of matching orders instead of the whole order history.
+
+CREATE INDEX IF NOT EXISTS idx_orders_status_order_id
+    ON orders (order_status, order_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_orders_table_order_id
+    ON orders (table_id, order_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_orders_created_at
+    ON orders (created_at);
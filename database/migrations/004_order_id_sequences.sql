@@ -0,0 +1,13 @@
+-- Migration: Pooled sequences for orders and order_item ids
+-- OrderEntity and OrderItemEntity switch from IDENTITY to SEQUENCE generation with
+-- allocationSize = 50. IDENTITY forces one INSERT round-trip per row; with sequences
+-- Hibernate pre-allocates ids in blocks of 50 and sends the inserts as JDBC batches.
+--
+-- INCREMENT BY must match allocationSize. Each sequence is positioned so the first
+-- block Hibernate allocates starts above every existing id.
+
+CREATE SEQUENCE IF NOT EXISTS orders_seq INCREMENT BY 50;
+SELECT setval('orders_seq', COALESCE((SELECT MAX(order_id) FROM orders), 0) + 50);
+
+CREATE SEQUENCE IF NOT EXISTS order_item_seq INCREMENT BY 50;
+SELECT setval('order_item_seq', COALESCE((SELECT MAX(order_item_id) FROM order_item), 0) + 50);
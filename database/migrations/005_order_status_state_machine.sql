@@ -0,0 +1,18 @@
+-- Migration: Order status state machine and optimistic locking
+-- Statuses are now NEW -> PREPARING -> READY -> SERVED, plus CANCELLED, applied
+-- with a conditional UPDATE that also bumps orders.version.
+
+ALTER TABLE orders
+ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- The staff page used to send the status JSON-quoted ("ACCEPTED") and the
+-- backend stored it verbatim; strip the quotes and map ACCEPTED to PREPARING
+UPDATE orders SET order_status = upper(trim(both '"' from order_status))
+WHERE order_status LIKE '"%"' OR order_status <> upper(order_status);
+
+UPDATE orders SET order_status = 'PREPARING' WHERE order_status = 'ACCEPTED';
+
+-- Anything else unrecognised is left for manual review; this fails if any remain
+ALTER TABLE orders
+ADD CONSTRAINT chk_orders_order_status
+CHECK (order_status IN ('NEW', 'PREPARING', 'READY', 'SERVED', 'CANCELLED'));
@@ -0,0 +1,43 @@
+-- Migration: Normalized order line notes
+-- Each note on an order line becomes a row referencing the menu note it was
+-- priced from, with the name and the amount it added captured at order time.
+-- notes_text stays as the display string; pricing and reporting use this table.
+
+CREATE SEQUENCE IF NOT EXISTS order_item_note_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS order_item_note (
+    order_item_note_id INTEGER PRIMARY KEY,
+    order_item_id INTEGER NOT NULL REFERENCES order_item (order_item_id) ON DELETE CASCADE,
+    -- Menu edits replace notes; the order keeps its captured name and price
+    note_id INTEGER REFERENCES menu_item_note (note_id) ON DELETE SET NULL,
+    note_name VARCHAR(255) NOT NULL,
+    note_price NUMERIC(10, 2) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_item_note_order_item ON order_item_note (order_item_id);
+CREATE INDEX IF NOT EXISTS idx_order_item_note_note ON order_item_note (note_id);
+
+-- Backfill from notes_text ("note1, note2"), matching names against the line's
+-- menu item notes as they are now (first note with the name, like pricing).
+-- Lines that already have rows are skipped, so this can be re-run.
+INSERT INTO order_item_note (order_item_note_id, order_item_id, note_id, note_name, note_price)
+SELECT (SELECT COALESCE(MAX(order_item_note_id), 0) FROM order_item_note)
+           + row_number() OVER (ORDER BY oi.order_item_id, part.ord),
+       oi.order_item_id,
+       mn.note_id,
+       trim(part.raw),
+       COALESCE(GREATEST(mn.note_price, 0), 0)
+FROM order_item oi
+CROSS JOIN LATERAL unnest(string_to_array(oi.notes_text, ',')) WITH ORDINALITY AS part(raw, ord)
+LEFT JOIN LATERAL (
+    SELECT n.note_id, n.note_price
+    FROM menu_item_note n
+    WHERE n.menu_item_id = oi.menu_item_id AND n.note_name = trim(part.raw)
+    ORDER BY n.note_id
+    LIMIT 1
+) mn ON TRUE
+WHERE trim(part.raw) <> ''
+  AND NOT EXISTS (SELECT 1 FROM order_item_note x WHERE x.order_item_id = oi.order_item_id);
+
+-- Position the sequence above the backfilled ids (INCREMENT BY matches allocationSize)
+SELECT setval('order_item_note_seq', COALESCE((SELECT MAX(order_item_note_id) FROM order_item_note), 0) + 50);
@@ -0,0 +1,16 @@
+-- Migration: Pooled sequences for menu_item, menu_item_option and menu_item_note ids
+-- Same change as 004 for the menu tables: with IDENTITY every inserted item, option
+-- and note is its own INSERT round-trip, which made loading a whole menu slow.
+-- Sequences with allocationSize = 50 let Hibernate send the inserts as JDBC batches.
+--
+-- INCREMENT BY must match allocationSize. Each sequence is positioned so the first
+-- block Hibernate allocates starts above every existing id.
+
+CREATE SEQUENCE IF NOT EXISTS menu_item_seq INCREMENT BY 50;
+SELECT setval('menu_item_seq', COALESCE((SELECT MAX(item_id) FROM menu_item), 0) + 50);
+
+CREATE SEQUENCE IF NOT EXISTS menu_item_option_seq INCREMENT BY 50;
+SELECT setval('menu_item_option_seq', COALESCE((SELECT MAX(option_id) FROM menu_item_option), 0) + 50);
+
+CREATE SEQUENCE IF NOT EXISTS menu_item_note_seq INCREMENT BY 50;
+SELECT setval('menu_item_note_seq', COALESCE((SELECT MAX(note_id) FROM menu_item_note), 0) + 50);
@@ -0,0 +1,51 @@
+-- Migration: Sales rollup tables for /api/analytics
+-- Per item per hour and per table per day, bucketed by order creation time and
+-- kept up to date by the application as orders are created, become READY or are
+-- cancelled. Dashboards read these instead of scanning orders/order_item.
+
+CREATE TABLE IF NOT EXISTS item_sales_hourly (
+    menu_item_id INTEGER NOT NULL,
+    hour_start TIMESTAMP NOT NULL,
+    quantity BIGINT NOT NULL,
+    revenue NUMERIC(12, 2) NOT NULL,
+    PRIMARY KEY (menu_item_id, hour_start)
+);
+
+CREATE TABLE IF NOT EXISTS table_sales_daily (
+    table_id VARCHAR(255) NOT NULL,
+    sales_date DATE NOT NULL,
+    order_count BIGINT NOT NULL,
+    cancelled_count BIGINT NOT NULL,
+    revenue NUMERIC(12, 2) NOT NULL,
+    -- Orders that reached READY, and the sum of their created -> READY seconds
+    ticket_count BIGINT NOT NULL,
+    ticket_seconds BIGINT NOT NULL,
+    PRIMARY KEY (table_id, sales_date)
+);
+
+-- Backfill from existing orders. Cancelled orders count as orders and
+-- cancellations but not as sales. Ticket times were never recorded, so history
+-- has none. Existing rows are left alone, so this can be re-run.
+INSERT INTO item_sales_hourly (menu_item_id, hour_start, quantity, revenue)
+SELECT oi.menu_item_id,
+       date_trunc('hour', o.created_at),
+       SUM(oi.quantity),
+       SUM(COALESCE(oi.unit_price, 0) * oi.quantity)
+FROM order_item oi
+JOIN orders o ON o.order_id = oi.order_id
+WHERE o.order_status <> 'CANCELLED' AND oi.menu_item_id IS NOT NULL
+GROUP BY oi.menu_item_id, date_trunc('hour', o.created_at)
+ON CONFLICT DO NOTHING;
+
+INSERT INTO table_sales_daily
+    (table_id, sales_date, order_count, cancelled_count, revenue, ticket_count, ticket_seconds)
+SELECT o.table_id,
+       o.created_at::date,
+       COUNT(*),
+       COUNT(*) FILTER (WHERE o.order_status = 'CANCELLED'),
+       COALESCE(SUM(o.total_price) FILTER (WHERE o.order_status <> 'CANCELLED'), 0),
+       0,
+       0
+FROM orders o
+GROUP BY o.table_id, o.created_at::date
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,49 @@
+-- Migration: Archive tables for finished orders
+-- OrderArchiver moves SERVED and CANCELLED orders older than
+-- orders.archive.after-days (with their lines and notes) here and deletes them
+-- from the live tables, keeping orders/order_item/order_item_note small.
+-- Archive rows keep their original ids and have no foreign keys to the menu;
+-- order_item_archive captures the menu item name at archival time.
+
+CREATE TABLE IF NOT EXISTS orders_archive (
+    order_id INTEGER PRIMARY KEY,
+    table_id VARCHAR(255) NOT NULL,
+    total_price NUMERIC(10, 2) NOT NULL,
+    order_status VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_orders_archive_table_order_id
+    ON orders_archive (table_id, order_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_orders_archive_created_at
+    ON orders_archive (created_at);
+
+CREATE TABLE IF NOT EXISTS order_item_archive (
+    order_item_id INTEGER PRIMARY KEY,
+    order_id INTEGER NOT NULL REFERENCES orders_archive (order_id) ON DELETE CASCADE,
+    menu_item_id INTEGER,
+    item_name VARCHAR(255),
+    quantity INTEGER NOT NULL,
+    customer_name VARCHAR(255),
+    chosen_option VARCHAR(255),
+    notes_text VARCHAR(255),
+    unit_price NUMERIC(10, 2)
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_item_archive_order ON order_item_archive (order_id);
+
+CREATE TABLE IF NOT EXISTS order_item_note_archive (
+    order_item_note_id INTEGER PRIMARY KEY,
+    order_item_id INTEGER NOT NULL REFERENCES order_item_archive (order_item_id) ON DELETE CASCADE,
+    note_id INTEGER,
+    note_name VARCHAR(255) NOT NULL,
+    note_price NUMERIC(10, 2) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_item_note_archive_order_item ON order_item_note_archive (order_item_id);
+
+-- Backs the archiver's batch selection (terminal status, oldest first)
+CREATE INDEX IF NOT EXISTS idx_orders_status_created_at
+    ON orders (order_status, created_at);
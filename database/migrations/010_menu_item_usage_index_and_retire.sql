@@ -0,0 +1,18 @@
+-- Migration: Index order lines by menu item, and retired menu items
+-- Deleting a menu item first checks whether any order line references it. Without
+-- an index on order_item.menu_item_id that check scans every order line ever
+-- written; with it, it is a single index probe. order_item.order_id is indexed as
+-- well: loading a page's lines and archiving orders both look lines up by order.
+--
+-- CONCURRENTLY avoids locking order_item against new orders while the indexes
+-- build. It cannot run inside a transaction block: run this file with plain
+-- psql -f (autocommit), not wrapped in BEGIN/COMMIT.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_order_item_menu_item ON order_item (menu_item_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_order_item_order ON order_item (order_id);
+
+-- Retired items are hidden from the menu and cannot be ordered, but are kept so
+-- existing orders still reference them. Retiring never checks order history.
+ALTER TABLE menu_item
+ADD COLUMN IF NOT EXISTS retired BOOLEAN NOT NULL DEFAULT FALSE;
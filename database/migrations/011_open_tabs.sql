@@ -0,0 +1,13 @@
+-- Migration: Open tabs
+-- A table can keep one order open as a tab and add later rounds to it
+-- (POST /api/tables/{tableId}/tab) until the tab is closed. Each round inserts only
+-- its new lines and bumps the order's total in place.
+--
+-- The partial unique index allows at most one open tab per table, so two first
+-- rounds racing each other cannot open two tabs; it also serves the open-tab lookup
+-- each round makes.
+
+ALTER TABLE orders
+ADD COLUMN IF NOT EXISTS tab_open BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_orders_open_tab ON orders (table_id) WHERE tab_open;
@@ -1,32 +1,36 @@
+// Transform an order DTO: map tableId to tableNo, flatten item fields for the UI
+export function transformOrder(order) {
+  return {
+    ...order,
+    orderId: order.orderId,
+    tableNo: order.tableId,  // Map tableId to tableNo
+    createdAt: order.createdAt || new Date().toISOString(),
+    items: (order.orderItems || []).map(item => ({
+      // Flatten backend DTO properties to item level for easy access
+      itemId: item.menuItemId || null,
+      itemName: item.itemName || '',
+      unitPrice: item.unitPrice || 0,
+      qty: item.quantity || 0,
+      customerName: item.customerName || null,
+      // Extract the CHOSEN option and notesText from backend DTO
+      chosenOption: item.chosenOption || null,
+      chosenNote: item.notesText || null,
+      notesText: item.notesText || null,
+      // Keep a placeholder for menuItem structure (backend no longer returns full menuItem entity)
+      menuItem: {},
+    })),
+    total: order.totalPrice || 0,  // Use totalPrice directly from backend
+  };
+}
+
 export async function fetchOrdersByStatus(status = 'NEW') {
   try {
-    const response = await fetch(`/api/all_orders`);
+    const response = await fetch(`/api/all_orders?status=${encodeURIComponent(status)}`);
     if (!response.ok) {
       throw new Error(`HTTP error! status: ${response.status}`);
     }
     const data = await response.json();
-    // Transform orders: map tableId to tableNo, preserve nested menuItem with options/notes
-    const transformedOrders = (data || []).map(order => ({
-      ...order,
-      orderId: order.orderId,
-      tableNo: order.tableId,  // Map tableId to tableNo
-      createdAt: order.createdAt || new Date().toISOString(),
-      items: (order.orderItems || []).map(item => ({
-        // Flatten backend DTO properties to item level for easy access
-        itemId: item.menuItemId || null,
-        itemName: item.itemName || '',
-        unitPrice: item.unitPrice || 0,
-        qty: item.quantity || 0,
-        customerName: item.customerName || null,
-        // Extract the CHOSEN option and notesText from backend DTO
-        chosenOption: item.chosenOption || null,
-        chosenNote: item.notesText || null,
-        notesText: item.notesText || null,
-        // Keep a placeholder for menuItem structure (backend no longer returns full menuItem entity)
-        menuItem: {},
-      })),
-      total: order.totalPrice || 0,  // Use totalPrice directly from backend
-    }));
+    const transformedOrders = (data || []).map(transformOrder);
     // DEBUG: Log first order to verify full structure
     if (transformedOrders.length > 0 && transformedOrders[0].items.length > 0) {
       console.log('[DEBUG allOrdersApi] First item with full structure:', transformedOrders[0].items[0]);
@@ -38,12 +42,25 @@ export async function fetchOrdersByStatus(status = 'NEW') {
   }
 }
 
+// Fetch one order by id (the newest order below id + 1), or null if it is gone
+export async function fetchOrder(orderId) {
+  const response = await fetch(`/api/all_orders?before=${orderId + 1}&limit=1`);
+  if (!response.ok) {
+    throw new Error(`HTTP error! status: ${response.status}`);
+  }
+  const data = await response.json();
+  const order = (data || [])[0];
+  return order && order.orderId === orderId ? transformOrder(order) : null;
+}
+
 export async function patchOrderStatus(orderId, newStatus) {
   try {
     const response = await fetch(`/api/all_orders/${orderId}`, {
       method: 'PATCH',
       headers: {
         'Content-Type': 'application/json',
+        // Same key on a retried click, so the server applies the change only once
+        'Idempotency-Key': `${orderId}-${newStatus}`,
       },
       body: JSON.stringify(newStatus),
     });
@@ -57,3 +74,38 @@ export async function patchOrderStatus(orderId, newStatus) {
     throw error;
   }
 }
+
+// Subscribe to the live order feed (server-sent events).
+// onSnapshot receives the full list of active orders (on connect, or when the server
+// cannot resume); onCreated receives a new order; onStatus receives (orderId, status);
+// onAppended receives a round added to an open tab (only the new items, with the
+// tab's new total and status).
+// EventSource reconnects on its own and resumes via Last-Event-ID.
+// Returns a function that closes the stream.
+export function subscribeToOrders({ onOpen, onSnapshot, onCreated, onStatus, onAppended, onError }) {
+  const source = new EventSource('/api/all_orders/stream');
+
+  source.onopen = () => {
+    if (onOpen) onOpen();
+  };
+  source.addEventListener('snapshot', (e) => {
+    onSnapshot((JSON.parse(e.data) || []).map(transformOrder));
+  });
+  source.addEventListener('order-created', (e) => {
+    const event = JSON.parse(e.data);
+    onCreated(transformOrder(event.order));
+  });
+  source.addEventListener('order-status', (e) => {
+    const event = JSON.parse(e.data);
+    onStatus(event.orderId, event.orderStatus);
+  });
+  source.addEventListener('order-appended', (e) => {
+    const event = JSON.parse(e.data);
+    if (onAppended) onAppended(transformOrder(event.order));
+  });
+  source.onerror = (e) => {
+    if (onError) onError(e);
+  };
+
+  return () => source.close();
+}
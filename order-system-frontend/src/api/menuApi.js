@@ -13,6 +13,29 @@ export async function fetchMenu() {
   }
 }
 
+// Subscribe to live sold-out changes (server-sent events). onSoldout receives
+// (itemId, soldout). The stream has no replay: onReconnect is called when EventSource
+// reconnects after an error, so the caller can reload the menu.
+// Returns a function that closes the stream.
+export function subscribeToMenu({ onSoldout, onReconnect }) {
+  const source = new EventSource('/api/menu/stream');
+  let dropped = false;
+
+  source.onopen = () => {
+    if (dropped && onReconnect) onReconnect();
+    dropped = false;
+  };
+  source.addEventListener('menu-soldout', (e) => {
+    const change = JSON.parse(e.data);
+    onSoldout(change.itemId, change.soldout);
+  });
+  source.onerror = () => {
+    dropped = true;
+  };
+
+  return () => source.close();
+}
+
 /**
  * Create a new menu item
  */
@@ -59,6 +82,51 @@ export async function updateMenuItem(id, itemData) {
   }
 }
 
+/**
+ * Mark a menu item sold out (or available again) without resending the whole item
+ */
+export async function setMenuItemSoldout(id, soldout) {
+  try {
+    const response = await fetch(`/api/menu/${id}/soldout`, {
+      method: 'PUT',
+      headers: {
+        'Content-Type': 'application/json',
+      },
+      body: JSON.stringify(Boolean(soldout)),
+    });
+    if (!response.ok) {
+      throw new Error(`HTTP error! status: ${response.status}`);
+    }
+    return true;
+  } catch (error) {
+    console.error('Error updating sold-out status:', error);
+    throw error;
+  }
+}
+
+/**
+ * Retire a menu item (or restore it with retired = false). Retired items leave the menu
+ * but stay referenced by past orders, so this works for items that cannot be deleted.
+ */
+export async function setMenuItemRetired(id, retired) {
+  try {
+    const response = await fetch(`/api/menu/${id}/retired`, {
+      method: 'PUT',
+      headers: {
+        'Content-Type': 'application/json',
+      },
+      body: JSON.stringify(Boolean(retired)),
+    });
+    if (!response.ok) {
+      throw new Error(`HTTP error! status: ${response.status}`);
+    }
+    return true;
+  } catch (error) {
+    console.error('Error updating retired status:', error);
+    throw error;
+  }
+}
+
 /**
  * Delete a menu item by ID
  */
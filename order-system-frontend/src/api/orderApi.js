@@ -21,6 +21,35 @@ export async function submitOrder(payload) {
   return response.json();
 }
 
+// Add a round to the table's open tab (opens one if there is none). The key makes a
+// retried submit add the round only once.
+export async function appendToTab(tableId, payload, idempotencyKey) {
+  const headers = { 'Content-Type': 'application/json' };
+  if (idempotencyKey) headers['Idempotency-Key'] = idempotencyKey;
+  const response = await fetch(`/api/tables/${encodeURIComponent(tableId)}/tab`, {
+    method: 'POST',
+    headers,
+    body: JSON.stringify(payload),
+  });
+  if (!response.ok) {
+    const error = await response.json().catch(() => ({}));
+    throw new Error(error.message || 'Failed to add to tab');
+  }
+  return response.json();
+}
+
+// Close the table's open tab; the next round starts a new order.
+export async function closeTab(tableId) {
+  const response = await fetch(`/api/tables/${encodeURIComponent(tableId)}/tab/close`, {
+    method: 'POST',
+  });
+  if (!response.ok) {
+    const error = await response.json().catch(() => ({}));
+    throw new Error(error.message || 'Failed to close tab');
+  }
+  return response.json();
+}
+
 // export async function updateOrderStatus(orderId, newStatus) {
 //   const response = await fetch(`/api/orders/${orderId}`, {
 //     method: 'PATCH',
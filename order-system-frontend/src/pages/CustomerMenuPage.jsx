@@ -1,5 +1,5 @@
-import { useState, useEffect } from 'react';
-import { fetchMenu } from '../api/menuApi';
+import { useState, useEffect, useRef } from 'react';
+import { fetchMenu, subscribeToMenu } from '../api/menuApi';
 import MenuList from '../components/MenuList';
 import Cart from '../components/Cart';
 
@@ -30,6 +30,23 @@ export default function CustomerMenuPage() {
     loadMenu();
   }, []);
 
+  // Sold-out toggles from staff show up live; items already in the cart are refused
+  // by the server when the order is placed
+  useEffect(() => {
+    return subscribeToMenu({
+      onSoldout: (itemId, soldout) => {
+        setMenuItems((prev) => prev.map((item) => (item.itemId === itemId ? { ...item, soldout } : item)));
+      },
+      onReconnect: async () => {
+        try {
+          setMenuItems((await fetchMenu()) || []);
+        } catch (err) {
+          console.error(err);
+        }
+      },
+    });
+  }, []);
+
 
   const handleAddToCart = (cartItem) => {
   // itemId 必须存在
@@ -135,6 +152,10 @@ export default function CustomerMenuPage() {
   };
 
   // Handle place order
+  // One key per cart submission: repeated clicks and retries of the same cart are
+  // recognised by the server and place the order only once
+  const submitKeyRef = useRef(null);
+
   const handlePlaceOrder = async () => {
     // Defensive check: cart is empty
     if (!cart || cart.length === 0) {
@@ -196,13 +217,24 @@ export default function CustomerMenuPage() {
     // Log final payload for debugging
     console.log('Submitting order payload:', JSON.stringify(orderPayload, null, 2));
 
+    if (!submitKeyRef.current) {
+      submitKeyRef.current = crypto.randomUUID();
+    }
+
     try {
       const res = await fetch('/api/orders', {
         method: 'POST',
-        headers: { 'Content-Type': 'application/json' },
+        headers: {
+          'Content-Type': 'application/json',
+          'Idempotency-Key': submitKeyRef.current,
+        },
         body: JSON.stringify(orderPayload),
       });
 
+      if (res.status === 429) {
+        const wait = res.headers.get('Retry-After') || 'a few';
+        throw new Error(`Too many orders right now. Please try again in ${wait} seconds.`);
+      }
       if (!res.ok) {
         const text = await res.text();
         throw new Error(`Submit failed: ${res.status} ${text}`);
@@ -212,6 +244,7 @@ export default function CustomerMenuPage() {
       console.log('Order saved:', savedOrder);
 
       // Clear cart and note after successful submit
+      submitKeyRef.current = null;
       setCart([]);
       setNote('');
       alert('Order placed successfully!');
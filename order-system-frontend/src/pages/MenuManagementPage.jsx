@@ -1,5 +1,5 @@
 import { useState, useEffect } from 'react';
-import { fetchMenu, createMenuItem, updateMenuItem, deleteMenuItem } from '../api/menuApi';
+import { fetchMenu, createMenuItem, updateMenuItem, deleteMenuItem, setMenuItemSoldout, setMenuItemRetired } from '../api/menuApi';
 import '../styles/MenuManagementPage.css';
 
 export default function MenuManagementPage() {
@@ -50,6 +50,21 @@ export default function MenuManagementPage() {
     setMessage('');
   };
 
+  // Toggle sold out straight from the list, without resending the whole item
+  const handleToggleSoldout = async (e, item) => {
+    e.stopPropagation();
+    const soldout = !item.soldout;
+    try {
+      await setMenuItemSoldout(item.itemId, soldout);
+      setMenuItems(prev => prev.map(i => (i.itemId === item.itemId ? { ...i, soldout } : i)));
+      if (selectedItemId === item.itemId) {
+        setFormData(prev => ({ ...prev, soldout }));
+      }
+    } catch (err) {
+      setMessage('Error updating sold-out status: ' + (err.message || 'Unknown error'));
+    }
+  };
+
   // Handle creating new item
   const handleNewItem = () => {
     setSelectedItemId(null);
@@ -140,6 +155,19 @@ export default function MenuManagementPage() {
       await loadMenuItems();
       handleNewItem();
     } catch (err) {
+      // Items used by past orders cannot be deleted; offer to retire them instead
+      if ((err.message || '').includes('used in existing orders')
+          && window.confirm('This item is used in existing orders. Retire it (remove it from the menu) instead?')) {
+        try {
+          await setMenuItemRetired(selectedItemId, true);
+          setMessage('Item retired successfully!');
+          await loadMenuItems();
+          handleNewItem();
+        } catch (retireErr) {
+          setMessage('Error retiring item: ' + (retireErr.message || 'Unknown error'));
+        }
+        return;
+      }
       setMessage('Error deleting item: ' + (err.message || 'Unknown error'));
       console.error(err);
     }
@@ -270,6 +298,9 @@ export default function MenuManagementPage() {
                   {item.soldout && <span className="badge-soldout">Sold Out</span>}
                 </div>
                 <p className="item-price">${item.itemPrice.toFixed(2)}</p>
+                <button className="btn-toggle-soldout" onClick={(e) => handleToggleSoldout(e, item)}>
+                  {item.soldout ? 'Mark Available' : 'Mark Sold Out'}
+                </button>
               </div>
             ))}
           </div>
@@ -1,9 +1,8 @@
 import { useState, useEffect, useRef } from 'react';
-import { fetchOrdersByStatus, patchOrderStatus } from '../api/allOrdersApi';
+import { fetchOrder, patchOrderStatus, subscribeToOrders } from '../api/allOrdersApi';
 import OrderCard from '../components/OrderCard';
 
-const STATUS_OPTIONS = ['NEW', 'ACCEPTED', 'READY'];
-const POLL_INTERVAL = 3000; // 3 seconds
+const STATUS_OPTIONS = ['NEW', 'PREPARING', 'READY'];
 
 export default function StaffOrdersPage() {
   const [orders, setOrders] = useState([]);
@@ -13,73 +12,88 @@ export default function StaffOrdersPage() {
   const [processingOrderId, setProcessingOrderId] = useState(null);
   const [lastUpdated, setLastUpdated] = useState(null);
 
-  const abortControllerRef = useRef(null);
-  const pollIntervalRef = useRef(null);
-
-  // Load orders
-  const loadOrders = async (selectedStatus) => {
-    try {
-      // Cancel previous request if in progress
-      if (abortControllerRef.current) {
-        abortControllerRef.current.abort();
-      }
-
-      setError(null);
-      const data = await fetchOrdersByStatus(selectedStatus);
-      // DEBUG: Log orders to verify customerName is present
-      if (data.length > 0 && data[0].items.length > 0) {
-        console.log('[DEBUG StaffOrdersPage] First order:', data[0]);
-      }
-      // Sort orders by orderId in descending order (newest first)
-      const sortedOrders = [...data].sort((a, b) => b.orderId - a.orderId);
-      setOrders(sortedOrders);
-      setLastUpdated(new Date());
-    } catch (err) {
-      if (err.name !== 'AbortError') {
-        setError('Failed to load orders. Please try again.');
-        console.error(err);
-      }
-    } finally {
-      setLoading(false);
-    }
+  // All active orders from the live feed, keyed by orderId
+  const ordersByIdRef = useRef(new Map());
+  const statusRef = useRef(status);
+  const hasSnapshotRef = useRef(false);
+
+  // Show the orders in the selected status, newest first
+  const renderOrders = () => {
+    const visible = [...ordersByIdRef.current.values()]
+      .filter((o) => o.orderStatus === statusRef.current)
+      .sort((a, b) => b.orderId - a.orderId);
+    setOrders(visible);
+    setLastUpdated(new Date());
+    setLoading(false);
   };
 
+  // Subscribe to the live order feed once; the server pushes every change
+  useEffect(() => {
+    const close = subscribeToOrders({
+      onOpen: () => setError(null),
+      onSnapshot: (snapshot) => {
+        ordersByIdRef.current = new Map(snapshot.map((o) => [o.orderId, o]));
+        hasSnapshotRef.current = true;
+        renderOrders();
+      },
+      onCreated: (order) => {
+        ordersByIdRef.current.set(order.orderId, order);
+        renderOrders();
+      },
+      onStatus: (orderId, orderStatus) => {
+        const existing = ordersByIdRef.current.get(orderId);
+        if (existing) {
+          ordersByIdRef.current.set(orderId, { ...existing, orderStatus });
+          renderOrders();
+        }
+      },
+      onAppended: (round) => {
+        const existing = ordersByIdRef.current.get(round.orderId);
+        if (existing) {
+          ordersByIdRef.current.set(round.orderId,
+            { ...existing, items: [...existing.items, ...round.items], total: round.total, orderStatus: round.orderStatus });
+          renderOrders();
+          return;
+        }
+        // A round only carries its new lines: load the whole tab we have not seen yet
+        fetchOrder(round.orderId)
+          .then((order) => {
+            if (order && !ordersByIdRef.current.has(order.orderId)) {
+              ordersByIdRef.current.set(order.orderId, order);
+              renderOrders();
+            }
+          })
+          .catch((err) => console.error(err));
+      },
+      onError: (err) => {
+        // EventSource reconnects automatically and resumes where it left off
+        setError('Live updates interrupted. Reconnecting...');
+        console.error(err);
+      },
+    });
+    return close;
+  }, []);
 
-  // Setup auto-refresh poll
+  // Re-filter when the selected status changes
   useEffect(() => {
-    // Initial load
-    loadOrders(status);
-
-    // Setup poll
-    pollIntervalRef.current = setInterval(() => {
-      loadOrders(status);
-    }, POLL_INTERVAL);
-
-    // Cleanup
-    return () => {
-      if (pollIntervalRef.current) {
-        clearInterval(pollIntervalRef.current);
-      }
-      if (abortControllerRef.current) {
-        abortControllerRef.current.abort();
-      }
-    };
+    statusRef.current = status;
+    if (hasSnapshotRef.current) {
+      renderOrders();
+    }
   }, [status]);
 
   // Handle status change
   const handleStatusChange = (e) => {
     const newStatus = e.target.value;
     setStatus(newStatus);
-    setLoading(true);
   };
 
   // Accept order
   const handleAcceptOrder = async (orderId) => {
     setProcessingOrderId(orderId);
     try {
-      await patchOrderStatus(orderId, 'ACCEPTED');
-      // Refresh orders after successful update
-      await loadOrders(status);
+      await patchOrderStatus(orderId, 'PREPARING');
+      // The live feed pushes the status change to every screen
     } catch (err) {
       setError('Failed to accept order. Please try again.');
       console.error(err);
@@ -93,8 +107,7 @@ export default function StaffOrdersPage() {
     setProcessingOrderId(orderId);
     try {
       await patchOrderStatus(orderId, 'READY');
-      // Refresh orders after successful update
-      await loadOrders(status);
+      // The live feed pushes the status change to every screen
     } catch (err) {
       setError('Failed to mark order ready. Please try again.');
       console.error(err);
@@ -193,7 +206,7 @@ export default function StaffOrdersPage() {
             </div>
             <div className="summary-stat">
               <span className="summary-label">Auto-Refresh</span>
-              <span className="summary-value">3s</span>
+              <span className="summary-value">Live</span>
             </div>
             <div className="summary-stat">
               <span className="summary-label">Last Updated</span>
@@ -0,0 +1,213 @@
+package com.camellia.ordersystem.audit;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Asynchronous audit trail of order activity, written as one JSON object per line to
+ * the "order.audit" logger (route it to its own appender to keep it separate).
+ *
+ * Request threads only build a small record and offer it to a bounded queue; JSON
+ * serialization and logging happen on a background thread. When the queue is full
+ * records are dropped and counted rather than blocking the request. Nothing is built
+ * while the audit logger is disabled. Full request payloads are captured for a
+ * configurable sample of orders only. On shutdown the queue is drained, waiting at
+ * most {@link #SHUTDOWN_WAIT_MS}.
+ */
+@Component
+public class OrderAudit {
+
+    private static final Logger audit = LoggerFactory.getLogger("order.audit");
+    private static final Logger logger = LoggerFactory.getLogger(OrderAudit.class);
+
+    static final long SHUTDOWN_WAIT_MS = 5_000;
+    // How often an idle writer checks whether it is shutting down
+    private static final long POLL_MS = 200;
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final double payloadSampleRate;
+    private final BlockingQueue<Map<String, Object>> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean closing;
+
+    public OrderAudit(ObjectMapper objectMapper,
+                      @Value("${orders.audit.enabled:true}") boolean enabled,
+                      @Value("${orders.audit.payload-sample-rate:0.0}") double payloadSampleRate,
+                      @Value("${orders.audit.queue-capacity:10000}") int queueCapacity) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.payloadSampleRate = payloadSampleRate;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.writer = new Thread(this::writeLoop, "order-audit");
+        this.writer.setDaemon(true);
+        if (enabled) {
+            this.writer.start();
+        }
+    }
+
+    /**
+     * An order request was received. The payload is attached for the sampled fraction
+     * of requests; it is serialized later on the audit thread, so callers must not
+     * mutate it afterwards.
+     */
+    public void orderReceived(String tableId, int lines, Object payload) {
+        if (!active()) {
+            return;
+        }
+        Map<String, Object> record = record("order.received");
+        record.put("tableId", tableId);
+        record.put("lines", lines);
+        if (payloadSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < payloadSampleRate) {
+            record.put("payload", payload);
+        }
+        offer(record);
+    }
+
+    public void orderCreated(Integer orderId, String tableId, int lines, BigDecimal total) {
+        if (!active()) {
+            return;
+        }
+        Map<String, Object> record = record("order.created");
+        record.put("orderId", orderId);
+        record.put("tableId", tableId);
+        record.put("lines", lines);
+        record.put("total", total);
+        offer(record);
+    }
+
+    public void roundAppended(Integer orderId, String tableId, int lines, BigDecimal total) {
+        if (!active()) {
+            return;
+        }
+        Map<String, Object> record = record("order.appended");
+        record.put("orderId", orderId);
+        record.put("tableId", tableId);
+        record.put("lines", lines);
+        record.put("total", total);
+        offer(record);
+    }
+
+    public void tabClosed(Integer orderId, String tableId, BigDecimal total) {
+        if (!active()) {
+            return;
+        }
+        Map<String, Object> record = record("tab.closed");
+        record.put("orderId", orderId);
+        record.put("tableId", tableId);
+        record.put("total", total);
+        offer(record);
+    }
+
+    public void orderRejected(String tableId, String reason) {
+        if (!active()) {
+            return;
+        }
+        Map<String, Object> record = record("order.rejected");
+        record.put("tableId", tableId);
+        record.put("reason", reason);
+        offer(record);
+    }
+
+    public void statusChanged(Integer orderId, String orderStatus) {
+        if (!active()) {
+            return;
+        }
+        Map<String, Object> record = record("order.status");
+        record.put("orderId", orderId);
+        record.put("orderStatus", orderStatus);
+        offer(record);
+    }
+
+    /** Records dropped because the queue was full. */
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Stop accepting records and wait up to SHUTDOWN_WAIT_MS for the writer to log
+     * what is already queued.
+     */
+    @PreDestroy
+    void shutdown() {
+        closing = true;
+        if (!writer.isAlive()) {
+            return;
+        }
+        try {
+            writer.join(SHUTDOWN_WAIT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            logger.warn("Order audit writer still busy after {} ms; {} records not written",
+                    SHUTDOWN_WAIT_MS, queue.size());
+        }
+    }
+
+    // Checked before building a record: no allocation or serialization when the logger is off
+    private boolean active() {
+        return enabled && !closing && audit.isInfoEnabled();
+    }
+
+    private Map<String, Object> record(String event) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("ts", Instant.now());
+        record.put("event", event);
+        // Captured here: the MDC is per-thread and empty on the audit thread
+        record.put("requestId", MDC.get(CorrelationIdFilter.MDC_KEY));
+        return record;
+    }
+
+    private void offer(Map<String, Object> record) {
+        if (!queue.offer(record)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void writeLoop() {
+        long reportedDrops = 0;
+        while (true) {
+            Map<String, Object> record;
+            try {
+                record = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (record == null) {
+                if (closing) {
+                    break;
+                }
+                continue;
+            }
+            try {
+                audit.info(objectMapper.writeValueAsString(record));
+            } catch (Exception e) {
+                logger.warn("Failed to write order audit record {}", record.get("event"), e);
+            }
+            long drops = dropped.get();
+            if (drops != reportedDrops) {
+                logger.warn("Order audit queue full; {} records dropped so far", drops);
+                reportedDrops = drops;
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.camellia.ordersystem.catalog;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.camellia.ordersystem.pricing.Money;
+
+/**
+ * Immutable copy of a menu item with its options and notes (name -> price).
+ * Option and note maps keep database order; on duplicate names the first one wins,
+ * matching how pricing has always resolved them. Prices are applied by
+ * {@link com.camellia.ordersystem.pricing.PricingEngine}. soldout is the stored value
+ * when the item was loaded; {@link SoldOutRegistry} has the live flag.
+ */
+public record CatalogItem(
+        Integer itemId,
+        String itemName,
+        Money itemPrice,
+        boolean soldout,
+        Map<String, Money> options,
+        Map<String, Money> notes,
+        Map<String, Note> notesByName,
+        Map<Integer, Note> notesById) {
+
+    /**
+     * A note as an order line captures it. Notes that are not on the menu (free text)
+     * have a null noteId and are not priced.
+     */
+    public record Note(Integer noteId, String noteName, Money notePrice) {
+
+        static Note freeText(String noteName) {
+            return new Note(null, noteName, Money.ZERO);
+        }
+    }
+
+    /**
+     * Build an item from its menu notes (in database order), indexing them by name and id.
+     */
+    public static CatalogItem of(Integer itemId, String itemName, Money itemPrice, boolean soldout,
+                                 Map<String, Money> options, List<Note> notes) {
+        Map<String, Money> prices = new LinkedHashMap<>();
+        Map<String, Note> byName = new HashMap<>();
+        Map<Integer, Note> byId = new HashMap<>();
+        for (Note note : notes) {
+            prices.putIfAbsent(note.noteName(), note.notePrice());
+            byName.putIfAbsent(note.noteName(), note);
+            byId.put(note.noteId(), note);
+        }
+        return new CatalogItem(itemId, itemName, itemPrice, soldout, options, Collections.unmodifiableMap(prices),
+                Collections.unmodifiableMap(byName), Collections.unmodifiableMap(byId));
+    }
+
+    /** The menu note with this id, or null if the item has no such note. */
+    public Note note(Integer noteId) {
+        return notesById.get(noteId);
+    }
+
+    /** The menu note with this name, or an unpriced free-text note if there is none. */
+    public Note note(String noteName) {
+        Note note = notesByName.get(noteName);
+        return note != null ? note : Note.freeText(noteName);
+    }
+}
@@ -0,0 +1,140 @@
+package com.camellia.ordersystem.catalog;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.camellia.ordersystem.dto.MenuItemRow;
+import com.camellia.ordersystem.dto.MenuNoteRow;
+import com.camellia.ordersystem.dto.MenuOptionRow;
+import com.camellia.ordersystem.pricing.Money;
+import com.camellia.ordersystem.repo.MenuItemRepository;
+
+/**
+ * Read-through cache of the whole menu as an immutable {@link MenuSnapshot}.
+ *
+ * The first read loads the menu; after that, reads are a volatile field access with
+ * no SQL. Menu edits call {@link #refreshAfterCommit()}, which rebuilds the snapshot
+ * once the editing transaction has committed and swaps it in atomically.
+ *
+ * Sold-out flags change too often to reload the menu for each toggle; the live flags
+ * are kept in {@link SoldOutRegistry}, which every reload seeds with new items.
+ */
+@Component
+public class MenuCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuCatalog.class);
+
+    private final MenuItemRepository menuRepo;
+    private final SoldOutRegistry soldOut;
+    private final TransactionTemplate readTx;
+    private final AtomicLong versions = new AtomicLong();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile MenuSnapshot snapshot;
+
+    public MenuCatalog(MenuItemRepository menuRepo, SoldOutRegistry soldOut, PlatformTransactionManager txManager) {
+        this.menuRepo = menuRepo;
+        this.soldOut = soldOut;
+        // REQUIRES_NEW: reloads may run from an afterCommit callback, where the
+        // finished transaction's resources are still bound to the thread
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTx.setReadOnly(true);
+    }
+
+    /**
+     * Current menu snapshot, loading it on first use.
+     */
+    public MenuSnapshot snapshot() {
+        MenuSnapshot current = snapshot;
+        return current != null ? current : refresh();
+    }
+
+    /**
+     * Rebuild the snapshot from the database now. Reloads are serialized so a reload
+     * that starts after a commit always finishes last and wins.
+     */
+    public MenuSnapshot refresh() {
+        // A lock rather than synchronized: the reload does JDBC I/O, which would pin
+        // the carrier thread when called from a virtual thread
+        refreshLock.lock();
+        try {
+            List<CatalogItem> items = readTx.execute(status -> load());
+            soldOut.loaded(items);
+            MenuSnapshot next = new MenuSnapshot(versions.incrementAndGet(), Instant.now(), items);
+            snapshot = next;
+            logger.info("Menu catalog loaded: version={}, items={}", next.getVersion(), items.size());
+            return next;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuild the snapshot once the current transaction commits (or immediately when
+     * there is no transaction). Rolled-back edits leave the snapshot untouched.
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    private List<CatalogItem> load() {
+        // Three flat projections (items, options, notes), each ordered by item id, merged
+        // in one pass; no entities are loaded
+        List<MenuItemRow> rows = menuRepo.findMenuRows();
+        List<MenuOptionRow> optionRows = menuRepo.findOptionRows();
+        List<MenuNoteRow> noteRows = menuRepo.findNoteRows();
+
+        List<CatalogItem> items = new ArrayList<>(rows.size());
+        int o = 0, n = 0;
+        for (MenuItemRow row : rows) {
+            Integer itemId = row.itemId();
+            Map<String, Money> options = new LinkedHashMap<>();
+            for (; o < optionRows.size() && optionRows.get(o).itemId() <= itemId; o++) {
+                MenuOptionRow option = optionRows.get(o);
+                if (option.itemId().equals(itemId)) {
+                    options.putIfAbsent(option.optionName(), Money.of(option.optionPrice()));
+                }
+            }
+            List<CatalogItem.Note> notes = new ArrayList<>();
+            for (; n < noteRows.size() && noteRows.get(n).itemId() <= itemId; n++) {
+                MenuNoteRow note = noteRows.get(n);
+                if (note.itemId().equals(itemId)) {
+                    notes.add(new CatalogItem.Note(note.noteId(), note.noteName(), Money.of(note.notePrice())));
+                }
+            }
+            items.add(CatalogItem.of(
+                    itemId,
+                    row.itemName(),
+                    Money.of(row.itemPrice()),
+                    Boolean.TRUE.equals(row.soldout()),
+                    Collections.unmodifiableMap(options),
+                    notes));
+        }
+        return items;
+    }
+}
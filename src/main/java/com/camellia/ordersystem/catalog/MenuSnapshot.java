@@ -0,0 +1,41 @@
+package com.camellia.ordersystem.catalog;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One immutable version of the whole menu. A new snapshot is built on every
+ * menu change and swapped in as a unit, so readers never see a half-applied edit.
+ */
+public final class MenuSnapshot {
+
+    private final long version;
+    private final Instant loadedAt;
+    private final List<CatalogItem> items;
+    private final Map<Integer, CatalogItem> byId;
+
+    MenuSnapshot(long version, Instant loadedAt, List<CatalogItem> items) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.items = List.copyOf(items);
+        this.byId = this.items.stream()
+                .collect(Collectors.toUnmodifiableMap(CatalogItem::itemId, Function.identity()));
+    }
+
+    /** A standalone snapshot of these items (version 0), for pricing outside the catalog. */
+    public static MenuSnapshot of(List<CatalogItem> items) {
+        return new MenuSnapshot(0, Instant.now(), items);
+    }
+
+    public long getVersion() { return version; }
+    public Instant getLoadedAt() { return loadedAt; }
+
+    /** All items ordered by itemId. */
+    public List<CatalogItem> getItems() { return items; }
+
+    /** The item with this id, or null if it is not on the menu. */
+    public CatalogItem item(Integer itemId) { return byId.get(itemId); }
+}
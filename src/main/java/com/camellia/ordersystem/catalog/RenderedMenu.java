@@ -0,0 +1,53 @@
+package com.camellia.ordersystem.catalog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The serialized menu response for one snapshot version and sold-out flags version:
+ * plain and gzip bytes plus strong validators. Built once per pair of versions and
+ * served as-is to every client.
+ *
+ * The ETag is a content hash, so it stays stable across restarts as long as the menu
+ * is unchanged. The gzip variant gets its own tag since it is a different representation.
+ */
+public record RenderedMenu(
+        long version,
+        long soldOutVersion,
+        Instant lastModified,
+        byte[] json,
+        byte[] gzip,
+        String etag,
+        String gzipEtag) {
+
+    public static RenderedMenu of(long version, long soldOutVersion, Instant lastModified, byte[] json) {
+        String hash = sha256(json);
+        return new RenderedMenu(version, soldOutVersion, lastModified, json, gzip(json),
+                "\"" + hash + "\"", "\"" + hash + "-gz\"");
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
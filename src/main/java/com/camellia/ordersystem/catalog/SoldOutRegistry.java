@@ -0,0 +1,117 @@
+package com.camellia.ordersystem.catalog;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * The live sold-out flag of every item on the menu, keyed by item id.
+ *
+ * Reads are one map lookup with no lock and no SQL; createOrder checks them before
+ * pricing. A toggle changes the flag in memory at once and queues it for
+ * {@link com.camellia.ordersystem.service.SoldOutWriter}, which writes
+ * menu_item.soldout in the background. Toggles of retired items only go to the queue.
+ * Only the latest value per item is kept, so an item toggled many times between
+ * flushes costs one UPDATE.
+ *
+ * Once an item is in the registry its flag here wins over the database: catalog
+ * reloads only seed items that are new to it (first load, new or restored items), so
+ * a reload can never bring back a value that has not been written yet. Flags are per
+ * process and never re-read for known items, so only one instance may run; see
+ * {@link com.camellia.ordersystem.service.SingleInstanceGuard}.
+ */
+@Component
+public class SoldOutRegistry {
+
+    // Written under this; replaced on reload, so only items on the menu are kept
+    private volatile Map<Integer, Boolean> flags = new ConcurrentHashMap<>();
+    // Toggles not yet written to the database, latest value per item
+    private final Map<Integer, Boolean> unsaved = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    private volatile Instant changedAt = Instant.EPOCH;
+
+    /** Whether the item is sold out. Items that are not on the menu are not. */
+    public boolean isSoldOut(Integer itemId) {
+        return Boolean.TRUE.equals(flags.get(itemId));
+    }
+
+    /** Whether the item is on the menu, i.e. its flag is kept here. */
+    public boolean contains(Integer itemId) {
+        return flags.containsKey(itemId);
+    }
+
+    /**
+     * Set the item's flag and queue it for writing. Returns whether it changed; an item
+     * that is not on the menu is left alone.
+     */
+    public synchronized boolean set(Integer itemId, boolean soldout) {
+        Boolean current = flags.get(itemId);
+        if (current == null || current == soldout) {
+            return false;
+        }
+        flags.put(itemId, soldout);
+        unsaved.put(itemId, soldout);
+        changedAt = Instant.now();
+        versions.incrementAndGet();
+        return true;
+    }
+
+    /** Bumped on every change; the rendered menu is rebuilt when it moves. */
+    public long version() {
+        return versions.get();
+    }
+
+    public Instant changedAt() {
+        return changedAt;
+    }
+
+    /** The value queued for the item and not yet written, or null. */
+    public Boolean queued(Integer itemId) {
+        return unsaved.get(itemId);
+    }
+
+    /** Toggles waiting to be written, as a copy. */
+    public Map<Integer, Boolean> unsaved() {
+        return Map.copyOf(unsaved);
+    }
+
+    /** The value was written; forget it unless the item has been toggled again since. */
+    public void saved(Integer itemId, boolean soldout) {
+        unsaved.remove(itemId, soldout);
+    }
+
+    /**
+     * Queue a value for an item that is not on the menu (retired), replacing any toggle
+     * still queued from before it left: every write goes through the same queue, so a
+     * flush can never write an older value over a newer one. Returns false, queuing
+     * nothing, if the item is on the menu (use {@link #set}).
+     */
+    public synchronized boolean queue(Integer itemId, boolean soldout) {
+        if (flags.containsKey(itemId)) {
+            return false;
+        }
+        unsaved.put(itemId, soldout);
+        return true;
+    }
+
+    /**
+     * Called by {@link MenuCatalog} with every freshly loaded item. Items already here
+     * keep their flag; new ones take their unsaved toggle, if any, else the stored value.
+     */
+    synchronized void loaded(List<CatalogItem> items) {
+        Map<Integer, Boolean> next = new ConcurrentHashMap<>(items.size() * 2);
+        for (CatalogItem item : items) {
+            Boolean current = flags.get(item.itemId());
+            if (current == null) {
+                current = unsaved.getOrDefault(item.itemId(), item.soldout());
+            }
+            next.put(item.itemId(), current);
+        }
+        flags = next;
+        versions.incrementAndGet();
+    }
+}
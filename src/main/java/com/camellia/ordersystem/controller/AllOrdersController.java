@@ -1,73 +1,168 @@
 package com.camellia.ordersystem.controller;
 
-import com.camellia.ordersystem.entity.OrderEntity;
-import com.camellia.ordersystem.entity.OrderItemEntity;
-import com.camellia.ordersystem.entity.MenuItemEntity;
+import com.camellia.ordersystem.audit.OrderAudit;
+import com.camellia.ordersystem.entity.OrderStatus;
 import com.camellia.ordersystem.repo.OrderRepository;
+import com.camellia.ordersystem.dto.OrderItemRow;
+import com.camellia.ordersystem.dto.OrderRow;
 import com.camellia.ordersystem.dto.OrderResponseDto;
+import com.camellia.ordersystem.dto.OrderStatusResponse;
+import com.camellia.ordersystem.feed.OrderFeed;
+import com.camellia.ordersystem.metrics.OrderMetrics;
+import com.camellia.ordersystem.service.IdempotencyStore;
+import com.camellia.ordersystem.service.OrderStatusService;
+import com.camellia.ordersystem.service.SalesRollup;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api")
 public class AllOrdersController {
 
+    // Orders in these states are finished and left out of the live feed snapshot
+    static final List<String> TERMINAL_STATUSES = OrderStatus.terminalNames();
+
     private final OrderRepository orderRepo;
+    private final OrderFeed orderFeed;
+    private final OrderAudit orderAudit;
+    private final OrderStatusService orderStatusService;
+    private final IdempotencyStore idempotencyStore;
+    private final OrderMetrics orderMetrics;
+    private final SalesRollup salesRollup;
 
-    public AllOrdersController(OrderRepository orderRepo) {
+    public AllOrdersController(OrderRepository orderRepo, OrderFeed orderFeed, OrderAudit orderAudit,
+                               OrderStatusService orderStatusService, IdempotencyStore idempotencyStore,
+                               OrderMetrics orderMetrics, SalesRollup salesRollup) {
         this.orderRepo = orderRepo;
+        this.orderFeed = orderFeed;
+        this.orderAudit = orderAudit;
+        this.orderStatusService = orderStatusService;
+        this.idempotencyStore = idempotencyStore;
+        this.orderMetrics = orderMetrics;
+        this.salesRollup = salesRollup;
     }
 
+    /**
+     * List orders newest first, filtered by status, table and createdAt range [from, to).
+     * Pages are keyset-based: pass the X-Next-Cursor header of the previous response as
+     * "before" to get the next page. The header is absent on the last page.
+     * Both queries run in one read-only transaction and return plain rows.
+     */
+    @Transactional(readOnly = true)
     @GetMapping("/all_orders")
-    public List<OrderResponseDto> allOrders() {
+    public ResponseEntity<List<OrderResponseDto>> allOrders(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String tableId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer before,
+            @RequestParam(required = false) Integer limit) {
+        int pageSize = OrderPage.pageSize(limit);
+
         // Return DTOs to avoid exposing JPA entities and to include menu item details
-        List<OrderEntity> orders = orderRepo.findAll();
-        List<OrderResponseDto> out = new java.util.ArrayList<>();
-
-        for (OrderEntity oe : orders) {
-            OrderResponseDto dto = new OrderResponseDto();
-            dto.orderId = oe.getOrderId();
-            dto.tableId = oe.getTableId();
-            dto.totalPrice = oe.getTotalPrice();
-            dto.orderStatus = oe.getOrderStatus();
-            dto.createdAt = oe.getCreatedAt();
-
-            for (OrderItemEntity oie : oe.getOrderItems()) {
-                OrderResponseDto.OrderItemResponseDto itemDto = new OrderResponseDto.OrderItemResponseDto();
-                MenuItemEntity mi = oie.getMenuItem();
-                if (mi != null) {
-                    itemDto.menuItemId = mi.getItemId();
-                    itemDto.itemName = mi.getItemName();
-                }
-                
-                // FIXED: Use the stored unit price (which includes option and notes)
-                // instead of the base menu item price
-                itemDto.unitPrice = oie.getUnitPrice();
-                
-                itemDto.quantity = oie.getQuantity();
-                itemDto.chosenOption = oie.getChosenOption();
-                itemDto.notesText = oie.getNotesText();
-                itemDto.customerName = oie.getCustomerName();
-                dto.orderItems.add(itemDto);
+        long start = System.nanoTime();
+        List<OrderRow> orders = orderRepo.findPage(status, tableId, from, to, before, Limit.of(pageSize));
+        orderMetrics.allOrders().readPage(start);
+        return OrderPage.response(toDtos(orders, orderMetrics.allOrders()), pageSize);
+    }
+
+    /**
+     * Live order feed for kitchen screens (server-sent events). Sends a "snapshot" of
+     * all active orders on connect, then "order-created" and "order-status" events.
+     * Reconnecting clients pass the last event id (Last-Event-ID header, or "resume"
+     * for clients that cannot set headers) to receive only what they missed.
+     */
+    @GetMapping(path = "/all_orders/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrders(
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) String resume) {
+        String token = lastEventId != null ? lastEventId : resume;
+        return orderFeed.subscribe(token, () -> activeOrders(OrderPage.MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Every order not yet in a terminal status, newest first, read in keyset pages of
+     * pageSize so the feed snapshot is complete however many orders are open. Timed
+     * under the feed_snapshot meters, not the all_orders ones.
+     */
+    List<OrderResponseDto> activeOrders(int pageSize) {
+        OrderMetrics.OrderView metrics = orderMetrics.feedSnapshot();
+        List<OrderResponseDto> snapshot = new ArrayList<>();
+        Integer before = null;
+        while (true) {
+            long start = System.nanoTime();
+            List<OrderRow> rows = orderRepo.findRowsByOrderStatusNotIn(TERMINAL_STATUSES, before, Limit.of(pageSize));
+            metrics.readPage(start);
+            snapshot.addAll(toDtos(rows, metrics));
+            if (rows.size() < pageSize) {
+                return snapshot;
             }
+            before = rows.get(rows.size() - 1).orderId();
+        }
+    }
 
-            out.add(dto);
+    /**
+     * Build response DTOs for a page of orders. Items and menu item names are read in
+     * one flat query for the whole page, so the statement count does not grow with
+     * the number of orders or lines. Phases are recorded on the given view's timers.
+     */
+    List<OrderResponseDto> toDtos(List<OrderRow> orders, OrderMetrics.OrderView metrics) {
+        if (orders.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        return out;
+        long start = System.nanoTime();
+        OrderPage page = new OrderPage(orders);
+        long mappedNanos = System.nanoTime() - start;
+
+        long queryStart = System.nanoTime();
+        List<OrderItemRow> rows = orderRepo.findItemRowsByOrderIds(page.orderIds());
+        metrics.readItems(queryStart);
+
+        // Mapping time excludes the items query
+        long rowsStart = System.nanoTime();
+        page.addItems(rows);
+        metrics.mappingNanos(mappedNanos + (System.nanoTime() - rowsStart));
+
+        return page.orders();
     }
 
+    /**
+     * Move an order to a new status (body: the status name, bare or JSON-quoted).
+     * Allowed: NEW -> PREPARING -> READY -> SERVED, and NEW/PREPARING/READY -> CANCELLED.
+     * Repeating a transition that already happened succeeds with changed=false; a
+     * retried request with the same Idempotency-Key gets the original response.
+     */
     @PatchMapping("/all_orders/{orderId}")
-    public OrderEntity updateOrderStatus(@PathVariable Integer orderId, @RequestBody String newStatus) {
-        OrderEntity order = orderRepo.findById(orderId)
-                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.NOT_FOUND,
-                        "Order not found: " + orderId
-                ));
-        order.setOrderStatus(newStatus);
-        return orderRepo.save(order);
-    } 
-
+    public OrderStatusResponse updateOrderStatus(
+            @PathVariable Integer orderId,
+            @RequestBody String newStatus,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+        OrderStatus target = OrderStatus.parse(newStatus);
+        if (target == null) {
+            throw new org.springframework.web.server.ResponseStatusException(
+                    org.springframework.http.HttpStatus.BAD_REQUEST,
+                    "Unknown order status: " + newStatus
+            );
+        }
 
+        return idempotencyStore.execute("order-status:" + orderId, idempotencyKey, () -> {
+            OrderStatusService.Transition t = orderStatusService.transition(orderId, target);
+            if (t.changed()) {
+                orderFeed.statusChanged(orderId, t.status().name());
+                orderAudit.statusChanged(orderId, t.status().name());
+                salesRollup.statusChanged(orderId, t.status());
+            }
+            return new OrderStatusResponse(orderId, t.status().name(), t.changed());
+        });
+    }
 }
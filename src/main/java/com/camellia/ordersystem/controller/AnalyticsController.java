@@ -0,0 +1,58 @@
+package com.camellia.ordersystem.controller;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.camellia.ordersystem.dto.ItemSalesRow;
+import com.camellia.ordersystem.dto.TableSalesRow;
+import com.camellia.ordersystem.repo.SalesRollupRepository;
+
+/**
+ * Kitchen dashboards. Served from the sales rollup tables (see SalesRollup), which
+ * trail live orders by up to one flush interval.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private final SalesRollupRepository rollupRepo;
+
+    public AnalyticsController(SalesRollupRepository rollupRepo) {
+        this.rollupRepo = rollupRepo;
+    }
+
+    /**
+     * Items sold per hour for hours starting in [from, to); defaults to the last 24 hours.
+     */
+    @GetMapping("/items")
+    public List<ItemSalesRow> itemSales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer menuItemId) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusHours(24).truncatedTo(ChronoUnit.HOURS);
+        return rollupRepo.findItemSales(start, end, menuItemId);
+    }
+
+    /**
+     * Orders, revenue and average ticket time per table per day for dates in [from, to);
+     * defaults to the last 30 days including today.
+     */
+    @GetMapping("/tables")
+    public List<TableSalesRow> tableSales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String tableId) {
+        LocalDate end = to != null ? to : LocalDate.now().plusDays(1);
+        LocalDate start = from != null ? from : end.minusDays(30);
+        return rollupRepo.findTableSales(start, end, tableId);
+    }
+}
@@ -1,77 +1,286 @@
 package com.camellia.ordersystem.controller;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.camellia.ordersystem.catalog.CatalogItem;
+import com.camellia.ordersystem.catalog.MenuCatalog;
+import com.camellia.ordersystem.catalog.MenuSnapshot;
+import com.camellia.ordersystem.catalog.RenderedMenu;
+import com.camellia.ordersystem.catalog.SoldOutRegistry;
+import com.camellia.ordersystem.dto.MenuImportItem;
+import com.camellia.ordersystem.dto.MenuImportResult;
 import com.camellia.ordersystem.dto.MenuItemDTO;
+import com.camellia.ordersystem.dto.MenuItemNoteRequest;
+import com.camellia.ordersystem.dto.MenuItemOptionRequest;
 import com.camellia.ordersystem.dto.MenuItemRequest;
 import com.camellia.ordersystem.entity.MenuItemEntity;
-import com.camellia.ordersystem.entity.MenuItemNoteEntity;
-import com.camellia.ordersystem.entity.MenuItemOptionEntity;
+import com.camellia.ordersystem.feed.MenuFeed;
+import com.camellia.ordersystem.metrics.OrderMetrics;
+import com.camellia.ordersystem.pricing.Money;
 import com.camellia.ordersystem.repo.MenuItemRepository;
 import com.camellia.ordersystem.repo.OrderRepository;
 import com.camellia.ordersystem.repo.OrderItemRepository;
+import com.camellia.ordersystem.service.MenuCsv;
+import com.camellia.ordersystem.service.MenuWriter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 
 @RestController
 @RequestMapping("/api")
 public class MenuController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String JSONL = "application/jsonl";
+
     private final MenuItemRepository menuRepo;
     private final OrderItemRepository orderItemRepo;
+    private final MenuCatalog menuCatalog;
+    private final ObjectMapper objectMapper;
+    private final OrderMetrics orderMetrics;
+    private final MenuWriter menuWriter;
+    private final SoldOutRegistry soldOut;
+    private final MenuFeed menuFeed;
+
+    private volatile RenderedMenu rendered;
 
 
-    public MenuController(MenuItemRepository menuRepo, OrderItemRepository orderItemRepo) {
+    public MenuController(MenuItemRepository menuRepo, OrderItemRepository orderItemRepo,
+                          MenuCatalog menuCatalog, ObjectMapper objectMapper, OrderMetrics orderMetrics,
+                          MenuWriter menuWriter, SoldOutRegistry soldOut, MenuFeed menuFeed) {
         this.menuRepo = menuRepo;
         this.orderItemRepo = orderItemRepo;
+        this.menuCatalog = menuCatalog;
+        this.objectMapper = objectMapper;
+        this.orderMetrics = orderMetrics;
+        this.menuWriter = menuWriter;
+        this.soldOut = soldOut;
+        this.menuFeed = menuFeed;
     }
 
+    /**
+     * Serve the pre-rendered menu for the current catalog version. Conditional requests
+     * with a matching ETag or Last-Modified get 304 without touching the body at all.
+     */
     @GetMapping("/menu")
-    public List<MenuItemDTO> menu() {
+    public ResponseEntity<byte[]> menu(WebRequest request) {
+        RenderedMenu rendered = renderedMenu();
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? rendered.gzipEtag() : rendered.etag();
 
-        return menuRepo.findAll().stream().map(item -> {
+        if (request.checkNotModified(etag, rendered.lastModified().toEpochMilli())) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder resp = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .cacheControl(CacheControl.noCache())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return resp.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(rendered.gzip());
+        }
+        return resp.body(rendered.json());
+    }
+
+    /**
+     * Menu DTOs for the current catalog snapshot (the body of GET /api/menu).
+     */
+    public List<MenuItemDTO> menuItems() {
+        return toDtos(menuCatalog.snapshot());
+    }
+
+    private List<MenuItemDTO> toDtos(MenuSnapshot snapshot) {
+        // Served from the in-memory catalog snapshot: no SQL per request
+        return snapshot.getItems().stream().map(item -> {
             MenuItemDTO dto = new MenuItemDTO();
-            dto.itemId = item.getItemId();
-            dto.itemName = item.getItemName();
-            dto.itemPrice = item.getItemPrice();
-            dto.setSoldout(item.getSoldout());
-
-            if (item.getOptions() == null) {
-                dto.options = Map.of();
-            } else {
-                dto.options = item.getOptions().stream()
-                    .collect(Collectors.toMap(
-                        o -> o.getOptionName(),
-                        o -> o.getOptionPrice()
-                    ));
+            dto.itemId = item.itemId();
+            dto.itemName = item.itemName();
+            dto.itemPrice = item.itemPrice();
+            dto.setSoldout(soldOut.isSoldOut(item.itemId()));
+            dto.options = item.options();
+            dto.notes = item.notes();
+            return dto;
+        }).toList();
+    }
+
+    /**
+     * Live sold-out changes for menu screens (server-sent events), applied on top of
+     * GET /api/menu. See {@link MenuFeed}.
+     */
+    @GetMapping(path = "/menu/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMenu() {
+        return menuFeed.subscribe();
+    }
+
+    /**
+     * Rendered menu for the current snapshot and sold-out flags, re-rendering only when
+     * either version moved. Two threads may race to render the same versions; both
+     * produce identical bytes.
+     */
+    private RenderedMenu renderedMenu() {
+        // Sold-out version first: a toggle racing with the render makes the next request
+        // render again rather than leaving a stale body cached under the new version
+        long soldOutVersion = soldOut.version();
+        MenuSnapshot snapshot = menuCatalog.snapshot();
+        RenderedMenu current = rendered;
+        if (current != null && current.version() == snapshot.getVersion()
+                && current.soldOutVersion() == soldOutVersion) {
+            return current;
+        }
+        long start = System.nanoTime();
+        try {
+            Instant lastModified = snapshot.getLoadedAt().isAfter(soldOut.changedAt())
+                ? snapshot.getLoadedAt() : soldOut.changedAt();
+            current = RenderedMenu.of(snapshot.getVersion(), soldOutVersion, lastModified,
+                objectMapper.writeValueAsBytes(toDtos(snapshot)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render menu", e);
+        }
+        orderMetrics.mapMenu(start);
+        rendered = current;
+        return current;
+    }
+
+    /**
+     * Bulk upsert of menu items from JSON Lines (one item per line, the PUT body plus
+     * an optional itemId) or CSV (see {@link MenuCsv}). The body is parsed as it is
+     * read and everything is applied in one transaction; any invalid item rejects the
+     * whole import with 400.
+     */
+    @PostMapping(path = "/menu/import", consumes = {NDJSON, JSONL, "text/csv"})
+    public MenuImportResult importMenu(HttpServletRequest request) throws IOException {
+        Reader body = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+        if (MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.parseMediaType("text/csv"))) {
+            return menuWriter.importItems(MenuCsv.read(body));
+        }
+        try (MappingIterator<MenuImportItem> items = objectMapper.readerFor(MenuImportItem.class).readValues(body)) {
+            return menuWriter.importItems(items);
+        } catch (RuntimeJsonMappingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid JSON line: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The whole menu in the import format (format=jsonl, the default, or csv), streamed
+     * from the catalog snapshot. Re-importing an export changes nothing.
+     */
+    @GetMapping("/menu/export")
+    public ResponseEntity<StreamingResponseBody> exportMenu(@RequestParam(defaultValue = "jsonl") String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"jsonl".equalsIgnoreCase(format)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be jsonl or csv");
+        }
+        MenuSnapshot snapshot = menuCatalog.snapshot();
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            if (csv) {
+                MenuCsv.writeHeader(writer);
+            }
+            for (CatalogItem item : snapshot.getItems()) {
+                MenuImportItem line = toImportItem(item);
+                if (csv) {
+                    MenuCsv.write(writer, line);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(line));
+                    writer.write('\n');
+                }
             }
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+            .contentType(csv ? MediaType.parseMediaType("text/csv") : MediaType.parseMediaType(NDJSON))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"menu." + (csv ? "csv" : "jsonl") + "\"")
+            .body(body);
+    }
+
+    private MenuImportItem toImportItem(CatalogItem item) {
+        MenuImportItem line = new MenuImportItem();
+        line.itemId = item.itemId();
+        line.itemName = item.itemName();
+        line.itemPrice = item.itemPrice().toBigDecimal();
+        line.soldout = soldOut.isSoldOut(item.itemId());
+        line.options = item.options().entrySet().stream()
+            .map(o -> new MenuItemOptionRequest(o.getKey(), o.getValue().toBigDecimal()))
+            .toList();
+        line.notes = item.notes().entrySet().stream()
+            .map(n -> new MenuItemNoteRequest(n.getKey(), n.getValue().toBigDecimal()))
+            .toList();
+        return line;
+    }
 
-            if (item.getNotes() == null) {
-                dto.notes = Map.of();
-            } else {
-                dto.notes = item.getNotes().stream()
-                    .collect(Collectors.toMap(
-                        n -> n.getNoteName(),
-                        n -> n.getNotePrice()
-                    ));
+    /**
+     * Whether Accept-Encoding allows gzip: gzip (or x-gzip) listed with a non-zero q, or
+     * failing that, * with a non-zero q. "gzip;q=0" refuses it.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] params = entry.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                return quality(params) > 0;
             }
+            if (coding.equals("*")) {
+                wildcard = quality(params) > 0;
+            }
+        }
+        return wildcard;
+    }
 
-            return dto;
-        }).toList();
+    /** The q parameter of one Accept-Encoding entry: 1 when absent, 0 when malformed. */
+    private static double quality(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].trim();
+            if (param.length() > 2 && param.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
     }
 
     /**
@@ -82,41 +291,14 @@ public class MenuController {
     public ResponseEntity<MenuItemDTO> createMenuItem(@RequestBody MenuItemRequest request) {
         try {
             MenuItemEntity item = new MenuItemEntity();
-            item.setItemName(request.itemName);
-            item.setItemPrice(request.itemPrice);
-            item.setSoldout(request.soldout != null ? request.soldout : false);
-
             // populate options/note lists via cascade
-            if (request.options != null && !request.options.isEmpty()) {
-                List<MenuItemOptionEntity> options = request.options.stream()
-                    .map(opt -> {
-                        MenuItemOptionEntity optionEntity = new MenuItemOptionEntity();
-                        optionEntity.setMenuItem(item);
-                        optionEntity.setOptionName(opt.optionName);
-                        optionEntity.setOptionPrice(opt.optionPrice);
-                        return optionEntity;
-                    })
-                    .toList();
-                item.getOptions().addAll(options);
-            }
-            if (request.notes != null && !request.notes.isEmpty()) {
-                List<MenuItemNoteEntity> notes = request.notes.stream()
-                    .map(note -> {
-                        MenuItemNoteEntity noteEntity = new MenuItemNoteEntity();
-                        noteEntity.setMenuItem(item);
-                        noteEntity.setNoteName(note.noteName);
-                        noteEntity.setNotePrice(note.notePrice);
-                        return noteEntity;
-                    })
-                    .toList();
-                item.getNotes().addAll(notes);
-            }
+            menuWriter.apply(item, request);
 
             MenuItemEntity savedItem = menuRepo.save(item);
+            menuCatalog.refreshAfterCommit();
 
-            // Fetch the saved item with options/notes loaded
-            MenuItemEntity createdItem = menuRepo.findById(savedItem.getItemId()).get();
-            return ResponseEntity.status(HttpStatus.CREATED).body(convertToDTO(createdItem));
+            // The saved instance already holds its options and notes; no re-read needed
+            return ResponseEntity.status(HttpStatus.CREATED).body(convertToDTO(savedItem));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -135,13 +317,15 @@ public class MenuController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
             }
 
+            // Index probe on order_item.menu_item_id (migration 010); archived orders do not count
             if (orderItemRepo.existsByMenuItem_ItemId(id)) {
             return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
-                .body("This item is used in existing orders and cannot be deleted");
+                .body("This item is used in existing orders and cannot be deleted; retire it instead");
             }
 
             menuRepo.delete(optionalItem.get());
+            menuCatalog.refreshAfterCommit();
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
             e.printStackTrace();
@@ -150,7 +334,37 @@ public class MenuController {
     }
        
     /**
-     * Update an existing menu item with options and notes
+     * Retire an item (body: true) or bring it back (false). Retired items leave the menu
+     * and can no longer be ordered, but stay in the database so past orders keep their
+     * reference; unlike delete, this never checks order history.
+     */
+    @Transactional
+    @PutMapping("/menu/{id}/retired")
+    public ResponseEntity<Void> setRetired(@PathVariable Integer id, @RequestBody Boolean retired) {
+        if (retired == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (menuRepo.updateRetired(id, retired) == 0) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        menuCatalog.refreshAfterCommit();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Retired items, for restoring them from menu management. Read from the database;
+     * the menu catalog only holds current items.
+     */
+    @Transactional(readOnly = true)
+    @GetMapping("/menu/retired")
+    public List<MenuItemDTO> retiredMenuItems() {
+        return menuRepo.findRetired().stream().map(this::convertToDTO).toList();
+    }
+
+    /**
+     * Update an existing menu item with options and notes (full replace). Options and
+     * notes are reconciled by name, so only rows that actually changed are written. A
+     * change to soldout alone goes through the sold-out registry without a menu reload.
      */
     @Transactional
     @PutMapping("/menu/{id}")
@@ -162,50 +376,53 @@ public class MenuController {
             }
 
             MenuItemEntity item = optionalItem.get();
-            item.setItemName(request.itemName);
-            item.setItemPrice(request.itemPrice);
-            item.setSoldout(request.soldout != null ? request.soldout : false);
-
-            // clear and rebuild options via cascade
-            item.getOptions().clear();
-            if (request.options != null && !request.options.isEmpty()) {
-                List<MenuItemOptionEntity> options = request.options.stream()
-                    .map(opt -> {
-                        MenuItemOptionEntity optionEntity = new MenuItemOptionEntity();
-                        optionEntity.setMenuItem(item);
-                        optionEntity.setOptionName(opt.optionName);
-                        optionEntity.setOptionPrice(opt.optionPrice);
-                        return optionEntity;
-                    })
-                    .toList();
-                item.getOptions().addAll(options);
+            if (menuWriter.apply(item, request).reloadsMenu()) {
+                menuCatalog.refreshAfterCommit();
             }
-
-            // clear and rebuild notes via cascade
-            item.getNotes().clear();
-            if (request.notes != null && !request.notes.isEmpty()) {
-                List<MenuItemNoteEntity> notes = request.notes.stream()
-                    .map(note -> {
-                        MenuItemNoteEntity noteEntity = new MenuItemNoteEntity();
-                        noteEntity.setMenuItem(item);
-                        noteEntity.setNoteName(note.noteName);
-                        noteEntity.setNotePrice(note.notePrice);
-                        return noteEntity;
-                    })
-                    .toList();
-                item.getNotes().addAll(notes);
-            }
-
-            // persist changes; cascade will handle children
-            MenuItemEntity updatedItem = menuRepo.save(item);
-
-            return ResponseEntity.ok(convertToDTO(updatedItem));
+            return ResponseEntity.ok(convertToDTO(item));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * Partial update: only the fields present in the body change. Omitted options or
+     * notes are left as they are; a list replaces them, reconciled by name. Like PUT,
+     * a change to soldout alone does not reload the menu.
+     */
+    @Transactional
+    @PatchMapping("/menu/{id}")
+    public ResponseEntity<MenuItemDTO> patchMenuItem(@PathVariable Integer id, @RequestBody MenuItemRequest request) {
+        Optional<MenuItemEntity> optionalItem = menuRepo.findById(id);
+        if (optionalItem.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        MenuItemEntity item = optionalItem.get();
+        if (menuWriter.patch(item, request).reloadsMenu()) {
+            menuCatalog.refreshAfterCommit();
+        }
+        return ResponseEntity.ok(convertToDTO(item));
+    }
+
+    /**
+     * Mark an item sold out or available again (body: true or false). Items on the menu
+     * change in memory at once, orders for them are refused from then on, and menu
+     * screens are told over /menu/stream; the database is written in the background.
+     * Retired items are only queued for that write.
+     */
+    @PutMapping("/menu/{id}/soldout")
+    public ResponseEntity<Void> setSoldout(@PathVariable Integer id, @RequestBody Boolean soldout) {
+        if (soldout == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!menuWriter.setSoldout(id, soldout)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Helper method to convert MenuItemEntity to MenuItemDTO
      */
@@ -213,21 +430,21 @@ public class MenuController {
         MenuItemDTO dto = new MenuItemDTO();
         dto.itemId = item.getItemId();
         dto.itemName = item.getItemName();
-        dto.itemPrice = item.getItemPrice();
+        dto.itemPrice = Money.of(item.getItemPrice());
         dto.setSoldout(item.getSoldout());
 
         dto.options = item.getOptions() == null ? Map.of()
             : item.getOptions().stream()
                 .collect(Collectors.toMap(
                     o -> o.getOptionName(),
-                    o -> o.getOptionPrice()
+                    o -> Money.of(o.getOptionPrice())
                 ));
 
         dto.notes = item.getNotes() == null ? Map.of()
             : item.getNotes().stream()
                 .collect(Collectors.toMap(
                     n -> n.getNoteName(),
-                    n -> n.getNotePrice()
+                    n -> Money.of(n.getNotePrice())
                 ));
 
         return dto;
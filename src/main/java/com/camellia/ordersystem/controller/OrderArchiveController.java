@@ -0,0 +1,52 @@
+package com.camellia.ordersystem.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.camellia.ordersystem.dto.OrderResponseDto;
+import com.camellia.ordersystem.repo.OrderArchiveRepository;
+
+/**
+ * Archived (served or cancelled, older than orders.archive.after-days) orders. Kept
+ * apart from /api/all_orders so the live endpoints only ever touch the live tables.
+ */
+@RestController
+@RequestMapping("/api")
+public class OrderArchiveController {
+
+    private final OrderArchiveRepository archiveRepo;
+
+    public OrderArchiveController(OrderArchiveRepository archiveRepo) {
+        this.archiveRepo = archiveRepo;
+    }
+
+    /**
+     * Same filters, response shape and X-Next-Cursor keyset paging as GET /api/all_orders.
+     */
+    @Transactional(readOnly = true)
+    @GetMapping("/all_orders/archive")
+    public ResponseEntity<List<OrderResponseDto>> archivedOrders(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String tableId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer before,
+            @RequestParam(required = false) Integer limit) {
+        int pageSize = OrderPage.pageSize(limit);
+
+        OrderPage page = new OrderPage(archiveRepo.findPage(status, tableId, from, to, before, Limit.of(pageSize)));
+        if (!page.isEmpty()) {
+            page.addItems(archiveRepo.findItemRowsByOrderIds(page.orderIds()));
+        }
+        return OrderPage.response(page.orders(), pageSize);
+    }
+}
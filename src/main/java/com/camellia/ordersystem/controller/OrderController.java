@@ -1,118 +1,277 @@
 package com.camellia.ordersystem.controller;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.PathVariable;
 
+import com.camellia.ordersystem.audit.OrderAudit;
+import com.camellia.ordersystem.catalog.CatalogItem;
+import com.camellia.ordersystem.catalog.MenuCatalog;
+import com.camellia.ordersystem.catalog.MenuSnapshot;
+import com.camellia.ordersystem.catalog.SoldOutRegistry;
 import com.camellia.ordersystem.dto.CreateOrderRequest;
-import com.camellia.ordersystem.entity.MenuItemEntity;
-import com.camellia.ordersystem.entity.MenuItemNoteEntity;
-import com.camellia.ordersystem.entity.MenuItemOptionEntity;
+import com.camellia.ordersystem.dto.OrderResponseDto;
+import com.camellia.ordersystem.dto.OrderRow;
 import com.camellia.ordersystem.entity.OrderEntity;
 import com.camellia.ordersystem.entity.OrderItemEntity;
+import com.camellia.ordersystem.entity.OrderItemNoteEntity;
+import com.camellia.ordersystem.entity.OrderStatus;
+import com.camellia.ordersystem.feed.OrderFeed;
+import com.camellia.ordersystem.metrics.OrderMetrics;
+import com.camellia.ordersystem.pricing.Money;
+import com.camellia.ordersystem.pricing.PricingEngine;
 import com.camellia.ordersystem.repo.MenuItemRepository;
-import com.camellia.ordersystem.repo.OrderRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.camellia.ordersystem.service.IdempotencyStore;
+import com.camellia.ordersystem.service.OrderAdmission;
+import com.camellia.ordersystem.service.OrderWriter;
+import com.camellia.ordersystem.service.SalesRollup;
+import com.camellia.ordersystem.service.TabWriter;
 
 @RestController
 @RequestMapping("/api")
 public class OrderController {
 
-    private final OrderRepository orderRepo;
     private final MenuItemRepository menuRepo;
-    private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
+    private final MenuCatalog menuCatalog;
+    private final OrderFeed orderFeed;
+    private final OrderWriter orderWriter;
+    private final OrderAudit orderAudit;
+    private final OrderMetrics orderMetrics;
+    private final SalesRollup salesRollup;
+    private final TabWriter tabWriter;
+    private final IdempotencyStore idempotencyStore;
+    private final OrderAdmission orderAdmission;
+    private final SoldOutRegistry soldOut;
 
-    public OrderController(OrderRepository orderRepo, MenuItemRepository menuRepo) {
-        this.orderRepo = orderRepo;
+    public OrderController(MenuItemRepository menuRepo, MenuCatalog menuCatalog,
+                           OrderFeed orderFeed, OrderWriter orderWriter, OrderAudit orderAudit,
+                           OrderMetrics orderMetrics, SalesRollup salesRollup, TabWriter tabWriter,
+                           IdempotencyStore idempotencyStore, OrderAdmission orderAdmission,
+                           SoldOutRegistry soldOut) {
         this.menuRepo = menuRepo;
+        this.menuCatalog = menuCatalog;
+        this.orderFeed = orderFeed;
+        this.orderWriter = orderWriter;
+        this.orderAudit = orderAudit;
+        this.orderMetrics = orderMetrics;
+        this.salesRollup = salesRollup;
+        this.tabWriter = tabWriter;
+        this.idempotencyStore = idempotencyStore;
+        this.orderAdmission = orderAdmission;
+        this.soldOut = soldOut;
     }
 
+    /**
+     * Place an order. Submissions are rate limited per table and overall (429 with
+     * Retry-After when refused). A retried request with the same Idempotency-Key gets
+     * the original order instead of placing a second one, and takes no rate-limit
+     * token or DB connection.
+     */
     @PostMapping("/orders")
-    public OrderEntity createOrder(@RequestBody CreateOrderRequest req) {
-        // Log raw incoming request JSON and per-item details for debugging
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            logger.info("RAW REQ JSON: {}", mapper.writerWithDefaultPrettyPrinter().writeValueAsString(req));
-        } catch (Exception e) {
-            logger.warn("Failed to serialize incoming CreateOrderRequest", e);
-        }
+    public OrderEntity createOrder(
+            @RequestBody CreateOrderRequest req,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+        // Audited asynchronously; the payload itself is only captured for sampled requests
+        orderAudit.orderReceived(req.tableId, req.items == null ? 0 : req.items.size(), req);
 
-        if (req.items != null) {
-            for (CreateOrderRequest.CreateOrderItem itLog : req.items) {
-                logger.info("REQ ITEM menuItemId={}, chosenOption={}, notes={}, notesText={}",
-                        itLog.menuItemId, itLog.chosenOption, itLog.notes, itLog.notesText);
-            }
-        }
         // VALIDATION: items list must not be empty
         if (req.items == null || req.items.isEmpty()) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                    org.springframework.http.HttpStatus.BAD_REQUEST,
-                    "Order items cannot be empty"
-            );
+            throw rejected(req.tableId, "empty_items", "Order items cannot be empty");
         }
 
+        return idempotencyStore.execute("order:" + req.tableId, idempotencyKey, () -> {
+            try (OrderAdmission.Permit permit = admit(req.tableId)) {
+                return placeOrder(req);
+            }
+        });
+    }
+
+    private OrderEntity placeOrder(CreateOrderRequest req) {
         OrderEntity order = new OrderEntity();
         order.setTableId(req.tableId);
-        order.setOrderStatus("NEW");
+        order.setOrderStatus(OrderStatus.NEW.name());
+
+        long pricingStart = System.nanoTime();
+        // Feed payload is built alongside the entity so publishing needs no reload
+        OrderResponseDto created = new OrderResponseDto();
+        List<OrderItemEntity> lines = new ArrayList<>(req.items.size());
+        Money total = priceLines(req.tableId, req.items, lines, created);
+        lines.forEach(order::addItem);
+
+        order.setTotalPrice(total.toBigDecimal());
+        orderMetrics.pricing(pricingStart);
+
+        long saveStart = System.nanoTime();
+        OrderEntity saved = orderWriter.save(order);
+        orderMetrics.saveOrder(saveStart);
+        orderMetrics.orderCreated(created.orderItems.size());
 
-        BigDecimal total = BigDecimal.ZERO;
+        created.orderId = saved.getOrderId();
+        created.tableId = saved.getTableId();
+        created.totalPrice = total;
+        created.orderStatus = saved.getOrderStatus();
+        created.createdAt = saved.getCreatedAt();
+        orderFeed.orderCreated(created);
+        salesRollup.orderCreated(created);
+        orderAudit.orderCreated(saved.getOrderId(), saved.getTableId(), created.orderItems.size(), saved.getTotalPrice());
 
-        for (CreateOrderRequest.CreateOrderItem it : req.items) {
-            // VALIDATION: menuItemId must not be null
-            if (it.menuItemId == null) {
-                throw new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.BAD_REQUEST,
-                        "menuItemId is required for each order item"
-                );
+        return saved;
+    }
+
+    /**
+     * Validate and price the request lines against the menu snapshot. Adds one unsaved
+     * line entity to lines and its DTO to out.orderItems per request line, and returns
+     * the lines' total. Lines for sold-out items are refused before anything is priced.
+     */
+    private Money priceLines(String tableId, List<CreateOrderRequest.CreateOrderItem> items,
+                             List<OrderItemEntity> lines, OrderResponseDto out) {
+        MenuSnapshot menu = menuCatalog.snapshot();
+        for (CreateOrderRequest.CreateOrderItem it : items) {
+            if (it.menuItemId != null && soldOut.isSoldOut(it.menuItemId)) {
+                throw rejected(tableId, "sold_out", "Menu item sold out: " + it.menuItemId);
             }
+        }
 
-            // Use Integer id for repository lookup
-            Integer menuItemId = it.menuItemId;
+        PricingEngine.PricedOrder priced;
+        try {
+            priced = PricingEngine.price(menu, items);
+        } catch (PricingEngine.PricingException e) {
+            throw rejected(tableId, e.code(), e.getMessage());
+        }
 
-            // Fetch menu item with 400 error if not found (not 500)
-            MenuItemEntity menuItem = menuRepo.findById(menuItemId)
-                    .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
-                            org.springframework.http.HttpStatus.BAD_REQUEST,
-                            "Menu item not found: " + menuItemId
-                    ));
+        for (int i = 0; i < items.size(); i++) {
+            CreateOrderRequest.CreateOrderItem it = items.get(i);
+            PricingEngine.PricedLine line = priced.lines().get(i);
 
             OrderItemEntity oi = new OrderItemEntity();
-            oi.setMenuItem(menuItem);
+            // Reference only sets the FK; no SELECT for the menu item row
+            oi.setMenuItem(menuRepo.getReferenceById(line.item().itemId()));
             oi.setQuantity(it.quantity);
             oi.setCustomerName(it.customerName);
             oi.setChosenOption(it.chosenOption);
 
-            // Normalize notes via DTO helper (accepts notes array or notesText)
-            String notesTextToStore = it.normalizedNotesText();
-            logger.debug("Normalized notes for menuItemId={}: {}", menuItemId, notesTextToStore);
-            if (notesTextToStore != null) {
-                oi.setNotesText(notesTextToStore);
+            // Notes are stored per note (menu note id + captured charge); notes_text
+            // keeps the display string the kitchen screens show
+            for (CatalogItem.Note note : line.notes()) {
+                oi.addNote(new OrderItemNoteEntity(note.noteId(), note.noteName(),
+                        PricingEngine.charge(note).toBigDecimal()));
+            }
+            oi.setNotesText(line.notesText());
+            oi.setUnitPrice(line.unitPrice().toBigDecimal());
+
+            lines.add(oi);
+            out.orderItems.add(toItemDto(line.item(), oi, line.unitPrice()));
+        }
+        return priced.total();
+    }
+
+    /**
+     * Add a round to the table's open tab, opening one if the table has none. Only the
+     * new lines are written and the tab's total is bumped in place. A tab that is
+     * already READY or SERVED is closed, and the round opens a new order instead. The
+     * response carries the new lines with the tab's id, new total and status. Rate
+     * limited like POST /orders. A retried request with the same Idempotency-Key gets
+     * the original response instead of adding the round twice.
+     */
+    @PostMapping("/tables/{tableId}/tab")
+    public OrderResponseDto appendToTab(
+            @PathVariable String tableId,
+            @RequestBody CreateOrderRequest req,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+        orderAudit.orderReceived(tableId, req.items == null ? 0 : req.items.size(), req);
+        if (req.items == null || req.items.isEmpty()) {
+            throw rejected(tableId, "empty_items", "Order items cannot be empty");
+        }
+
+        return idempotencyStore.execute("tab:" + tableId, idempotencyKey, () -> {
+            TabWriter.Round r;
+            OrderResponseDto round = new OrderResponseDto();
+            try (OrderAdmission.Permit permit = admit(tableId)) {
+                r = appendRound(tableId, req, round);
+            }
+            if (r.closed() != null) {
+                orderAudit.tabClosed(r.closed().orderId(), tableId, r.closed().totalPrice());
             }
 
-            // FIXED: Calculate actual unit price including option and notes
-            BigDecimal unitPrice = calculateUnitPrice(menuItem, it.chosenOption, notesTextToStore);
-            oi.setUnitPrice(unitPrice);
-            
-            logger.info("Item pricing: menuItemId={}, basePrice={}, chosenOption={}, notes={}, calculatedUnitPrice={}", 
-                    menuItemId, menuItem.getItemPrice(), it.chosenOption, notesTextToStore, unitPrice);
+            round.orderId = r.tab().orderId();
+            round.tableId = r.tab().tableId();
+            round.totalPrice = Money.of(r.tab().totalPrice());
+            round.orderStatus = r.tab().orderStatus();
+            round.createdAt = r.tab().createdAt();
+            if (r.opened()) {
+                orderMetrics.orderCreated(round.orderItems.size());
+                orderFeed.orderCreated(round);
+                salesRollup.orderCreated(round);
+                orderAudit.orderCreated(round.orderId, tableId, round.orderItems.size(), r.tab().totalPrice());
+            } else {
+                orderFeed.itemsAppended(round);
+                salesRollup.roundAppended(round);
+                orderAudit.roundAppended(round.orderId, tableId, round.orderItems.size(), r.tab().totalPrice());
+            }
+            return round;
+        });
+    }
 
-            order.addItem(oi);
+    private TabWriter.Round appendRound(String tableId, CreateOrderRequest req, OrderResponseDto round) {
+        long pricingStart = System.nanoTime();
+        List<OrderItemEntity> lines = new ArrayList<>(req.items.size());
+        Money delta = priceLines(tableId, req.items, lines, round);
+        orderMetrics.pricing(pricingStart);
+
+        long saveStart = System.nanoTime();
+        TabWriter.Round r = tabWriter.append(tableId, lines, delta);
+        orderMetrics.saveOrder(saveStart);
+        return r;
+    }
+
+    /** Settle the table's open tab: later rounds start a new order. 404 if the table has no open tab. */
+    @PostMapping("/tables/{tableId}/tab/close")
+    public OrderRow closeTab(@PathVariable String tableId) {
+        OrderRow tab = tabWriter.close(tableId);
+        if (tab == null) {
+            throw new org.springframework.web.server.ResponseStatusException(
+                    org.springframework.http.HttpStatus.NOT_FOUND, "No open tab for table " + tableId);
+        }
+        orderAudit.tabClosed(tab.orderId(), tableId, tab.totalPrice());
+        return tab;
+    }
 
-            // Calculate total using the actual unit price
-            total = total.add(unitPrice.multiply(BigDecimal.valueOf(it.quantity)));
+    private OrderAdmission.Permit admit(String tableId) {
+        try {
+            return orderAdmission.admit(tableId);
+        } catch (OrderAdmission.RejectedException e) {
+            orderAudit.orderRejected(tableId, e.getReason());
+            orderMetrics.orderRejected(e.reason());
+            throw e;
         }
+    }
 
-        order.setTotalPrice(total);
+    private org.springframework.web.server.ResponseStatusException rejected(String tableId, String code, String reason) {
+        orderAudit.orderRejected(tableId, reason);
+        orderMetrics.orderRejected(code);
+        return new org.springframework.web.server.ResponseStatusException(
+                org.springframework.http.HttpStatus.BAD_REQUEST, reason);
+    }
 
-        return orderRepo.save(order);
+    private static OrderResponseDto.OrderItemResponseDto toItemDto(CatalogItem menuItem, OrderItemEntity oi,
+                                                                   Money unitPrice) {
+        OrderResponseDto.OrderItemResponseDto dto = new OrderResponseDto.OrderItemResponseDto();
+        dto.menuItemId = menuItem.itemId();
+        dto.itemName = menuItem.itemName();
+        dto.unitPrice = unitPrice;
+        dto.quantity = oi.getQuantity();
+        dto.chosenOption = oi.getChosenOption();
+        dto.notesText = oi.getNotesText();
+        dto.customerName = oi.getCustomerName();
+        return dto;
     }
 
     // @PatchMapping("/orders/{orderId}")
@@ -125,53 +284,4 @@ public class OrderController {
     //     order.setOrderStatus(newStatus);
     //     return orderRepo.save(order);
     // }
-
-    /**
-     * Calculate the actual unit price for an order item.
-     * Price = chosen option price (or base price if no option) + sum of all note prices
-     */
-    private BigDecimal calculateUnitPrice(MenuItemEntity menuItem, String chosenOption, String notesText) {
-        BigDecimal price = BigDecimal.ZERO;
-
-        // 1. Get the option price (if option is chosen, use its price; otherwise use base price)
-        if (chosenOption != null && !chosenOption.trim().isEmpty()) {
-            // Find the matching option
-            BigDecimal optionPrice = menuItem.getOptions().stream()
-                    .filter(opt -> opt.getOptionName().equals(chosenOption.trim()))
-                    .findFirst()
-                    .map(MenuItemOptionEntity::getOptionPrice)
-                    .orElse(menuItem.getItemPrice()); // Fallback to base price if option not found
-            price = price.add(optionPrice);
-            logger.debug("Found option '{}' with price: {}", chosenOption, optionPrice);
-        } else {
-            // No option chosen, use base price
-            price = price.add(menuItem.getItemPrice());
-        }
-
-        // 2. Add prices for all selected notes
-        if (notesText != null && !notesText.trim().isEmpty()) {
-            // Split notes by comma (as they're stored as "note1, note2, note3")
-            String[] noteNames = notesText.split(",");
-            for (String noteName : noteNames) {
-                String trimmedNoteName = noteName.trim();
-                if (!trimmedNoteName.isEmpty()) {
-                    // Find matching note and add its price
-                    // FIXED: BigDecimal is immutable, must reassign
-                    BigDecimal notePrice = menuItem.getNotes().stream()
-                            .filter(note -> note.getNoteName().equals(trimmedNoteName))
-                            .findFirst()
-                            .map(MenuItemNoteEntity::getNotePrice)
-                            .orElse(BigDecimal.ZERO);
-                    
-                    if (notePrice.compareTo(BigDecimal.ZERO) > 0) {
-                        price = price.add(notePrice);
-                        logger.debug("Found note '{}' with price: {}", trimmedNoteName, notePrice);
-                    }
-                }
-            }
-        }
-
-        return price;
-    }
 }
-
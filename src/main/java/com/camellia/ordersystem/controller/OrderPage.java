@@ -0,0 +1,89 @@
+package com.camellia.ordersystem.controller;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+
+import com.camellia.ordersystem.dto.OrderItemRow;
+import com.camellia.ordersystem.dto.OrderResponseDto;
+import com.camellia.ordersystem.dto.OrderRow;
+import com.camellia.ordersystem.pricing.Money;
+
+/**
+ * One page of order DTOs built from plain rows: the order header rows first, then
+ * all their lines from one flat item query. Shared by the live and archived order
+ * lists, which differ only in the tables they read.
+ */
+final class OrderPage {
+
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 500;
+
+    private final List<OrderResponseDto> orders;
+    private final Map<Integer, OrderResponseDto> byId;
+
+    /** Map the header rows; lines are added with {@link #addItems}. */
+    OrderPage(List<OrderRow> rows) {
+        orders = new ArrayList<>(rows.size());
+        byId = new HashMap<>();
+        for (OrderRow row : rows) {
+            OrderResponseDto dto = new OrderResponseDto();
+            dto.orderId = row.orderId();
+            dto.tableId = row.tableId();
+            dto.totalPrice = Money.of(row.totalPrice());
+            dto.orderStatus = row.orderStatus();
+            dto.createdAt = row.createdAt();
+            byId.put(dto.orderId, dto);
+            orders.add(dto);
+        }
+    }
+
+    /** The page size for a requested limit: the default when absent, clamped to 1..MAX_PAGE_SIZE. */
+    static int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * 200 with the page, and the last order id as X-Next-Cursor when the page is full
+     * (absent on the last page).
+     */
+    static ResponseEntity<List<OrderResponseDto>> response(List<OrderResponseDto> page, int pageSize) {
+        ResponseEntity.BodyBuilder resp = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            resp.header("X-Next-Cursor", String.valueOf(page.get(page.size() - 1).orderId));
+        }
+        return resp.body(page);
+    }
+
+    boolean isEmpty() {
+        return orders.isEmpty();
+    }
+
+    /** Ids of the orders on the page, for the item query. */
+    List<Integer> orderIds() {
+        return new ArrayList<>(byId.keySet());
+    }
+
+    /** Add item rows (each for an order on this page) to their orders, in row order. */
+    void addItems(List<OrderItemRow> rows) {
+        for (OrderItemRow row : rows) {
+            OrderResponseDto.OrderItemResponseDto itemDto = new OrderResponseDto.OrderItemResponseDto();
+            itemDto.menuItemId = row.menuItemId();
+            itemDto.itemName = row.itemName();
+            // The stored unit price (option and notes included), not the menu's base price
+            itemDto.unitPrice = Money.of(row.unitPrice());
+            itemDto.quantity = row.quantity();
+            itemDto.chosenOption = row.chosenOption();
+            itemDto.notesText = row.notesText();
+            itemDto.customerName = row.customerName();
+            byId.get(row.orderId()).orderItems.add(itemDto);
+        }
+    }
+
+    List<OrderResponseDto> orders() {
+        return orders;
+    }
+}
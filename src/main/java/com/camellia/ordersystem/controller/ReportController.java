@@ -0,0 +1,35 @@
+package com.camellia.ordersystem.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.camellia.ordersystem.dto.NoteUsageRow;
+import com.camellia.ordersystem.repo.OrderItemNoteRepository;
+
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    private final OrderItemNoteRepository orderItemNoteRepo;
+
+    public ReportController(OrderItemNoteRepository orderItemNoteRepo) {
+        this.orderItemNoteRepo = orderItemNoteRepo;
+    }
+
+    /**
+     * Note usage for live (not yet archived) orders created in [from, to), aggregated in
+     * the database by note id.
+     */
+    @GetMapping("/notes")
+    public List<NoteUsageRow> noteUsage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return orderItemNoteRepo.findNoteUsage(from, to);
+    }
+}
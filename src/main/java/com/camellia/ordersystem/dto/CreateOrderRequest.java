@@ -14,15 +14,31 @@ public class CreateOrderRequest {
         public String chosenOption;   // chosen option as string (optional)
         public List<Object> notes;    // multi-select notes (strings or objects) (optional)
         public String notesText;      // optional single-string notes (accept either format)
+        public List<Integer> noteIds; // menu note ids (optional; used instead of notes/notesText when present)
 
         // Normalize notes into a single string for persistence.
         public String normalizedNotesText() {
+            if (notesText != null && !notesText.trim().isEmpty()) {
+                return notesText.trim();
+            }
+            java.util.List<String> parts = normalizedNotes();
+            return parts.isEmpty() ? null : String.join(", ", parts);
+        }
+
+        // Normalize notes into a list of note names for pricing.
+        // notesText is split on commas (stored as "note1, note2, note3"); otherwise the
+        // notes array is used as-is, so names containing commas still price correctly.
+        public java.util.List<String> normalizedNotes() {
+            java.util.List<String> parts = new java.util.ArrayList<>();
             try {
                 if (notesText != null && !notesText.trim().isEmpty()) {
-                    return notesText.trim();
+                    for (String s : notesText.split(",")) {
+                        s = s.trim();
+                        if (!s.isEmpty()) parts.add(s);
+                    }
+                    return parts;
                 }
                 if (notes != null && !notes.isEmpty()) {
-                    java.util.List<String> parts = new java.util.ArrayList<>();
                     for (Object o : notes) {
                         if (o == null) continue;
                         if (o instanceof String) {
@@ -40,12 +56,11 @@ public class CreateOrderRequest {
                             if (!s.isEmpty()) parts.add(s);
                         }
                     }
-                    if (!parts.isEmpty()) return String.join(", ", parts);
                 }
             } catch (Exception e) {
-                // ignore and fall through to return null
+                // ignore and return what was collected
             }
-            return null;
+            return parts;
         }
     }
 }
@@ -0,0 +1,16 @@
+package com.camellia.ordersystem.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Items sold in one hour, net of cancelled orders. itemName is null once the menu
+ * item has been deleted.
+ */
+public record ItemSalesRow(
+        Integer menuItemId,
+        String itemName,
+        LocalDateTime hourStart,
+        long quantity,
+        BigDecimal revenue) {
+}
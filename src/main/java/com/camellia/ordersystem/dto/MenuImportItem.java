@@ -0,0 +1,18 @@
+package com.camellia.ordersystem.dto;
+
+/**
+ * One item in a bulk menu import or export: a menu item request plus the id it is
+ * matched on. Items without an id (or with an unknown one) are matched by name,
+ * and created when there is no match.
+ */
+public class MenuImportItem extends MenuItemRequest {
+    public Integer itemId;
+
+    public Integer getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Integer itemId) {
+        this.itemId = itemId;
+    }
+}
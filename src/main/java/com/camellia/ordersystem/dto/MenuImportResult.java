@@ -0,0 +1,8 @@
+package com.camellia.ordersystem.dto;
+
+/**
+ * Outcome of a bulk menu import: items created, items changed, and items that
+ * already matched the import and were not written.
+ */
+public record MenuImportResult(int created, int updated, int unchanged) {
+}
@@ -1,16 +1,17 @@
 package com.camellia.ordersystem.dto;
 
-import java.math.BigDecimal;
 import java.util.Map;
 
+import com.camellia.ordersystem.pricing.Money;
+
 public class MenuItemDTO {
     public Integer itemId;
     public String itemName;
-    public BigDecimal itemPrice;
+    public Money itemPrice;
     private boolean soldout;
 
-    public Map<String, BigDecimal> options;
-    public Map<String, BigDecimal> notes;
+    public Map<String, Money> options;
+    public Map<String, Money> notes;
 
     public MenuItemDTO(){
 
@@ -25,7 +26,7 @@ public class MenuItemDTO {
         itemName = name;
     }
 
-    public void setItemPrice(BigDecimal price){
+    public void setItemPrice(Money price){
         itemPrice = price;
     }
 
@@ -38,12 +39,12 @@ public class MenuItemDTO {
     }
 
 
-    public void setOptions(Map<String, BigDecimal> opt){
+    public void setOptions(Map<String, Money> opt){
         this.options = opt;
 
     }
 
-    public void setNotes(Map<String, BigDecimal> nts){
+    public void setNotes(Map<String, Money> nts){
         this.notes = nts;
     }
 }
@@ -0,0 +1,15 @@
+package com.camellia.ordersystem.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only row for one current menu item, without its options and notes. The menu
+ * catalog is built from these plus {@link MenuOptionRow} and {@link MenuNoteRow}
+ * rather than from managed entities.
+ */
+public record MenuItemRow(
+        Integer itemId,
+        String itemName,
+        BigDecimal itemPrice,
+        Boolean soldout) {
+}
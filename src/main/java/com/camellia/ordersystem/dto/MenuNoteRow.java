@@ -0,0 +1,13 @@
+package com.camellia.ordersystem.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only row for one note of a current menu item.
+ */
+public record MenuNoteRow(
+        Integer itemId,
+        Integer noteId,
+        String noteName,
+        BigDecimal notePrice) {
+}
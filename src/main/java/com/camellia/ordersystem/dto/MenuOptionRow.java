@@ -0,0 +1,12 @@
+package com.camellia.ordersystem.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only row for one option of a current menu item.
+ */
+public record MenuOptionRow(
+        Integer itemId,
+        String optionName,
+        BigDecimal optionPrice) {
+}
@@ -0,0 +1,14 @@
+package com.camellia.ordersystem.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * How often one note was ordered in a period and what it added to revenue.
+ * noteId is null for free-text notes that are not on the menu.
+ */
+public record NoteUsageRow(
+        Integer noteId,
+        String noteName,
+        Long quantity,
+        BigDecimal revenue) {
+}
@@ -0,0 +1,19 @@
+package com.camellia.ordersystem.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Flat, read-only row for one order line joined with its menu item name.
+ * Used by the all-orders read path so items for a whole page of orders
+ * load in a single query instead of one lazy load per order and per item.
+ */
+public record OrderItemRow(
+        Integer orderId,
+        Integer menuItemId,
+        String itemName,
+        BigDecimal unitPrice,
+        Integer quantity,
+        String chosenOption,
+        String notesText,
+        String customerName) {
+}
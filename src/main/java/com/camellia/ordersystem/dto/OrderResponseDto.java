@@ -1,14 +1,15 @@
 package com.camellia.ordersystem.dto;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.camellia.ordersystem.pricing.Money;
+
 public class OrderResponseDto {
     public Integer orderId;
     public String tableId;
-    public BigDecimal totalPrice;
+    public Money totalPrice;
     public String orderStatus;
     public LocalDateTime createdAt;
     public List<OrderItemResponseDto> orderItems = new ArrayList<>();
@@ -16,7 +17,7 @@ public class OrderResponseDto {
     public static class OrderItemResponseDto {
         public Integer menuItemId;
         public String itemName;
-        public BigDecimal unitPrice;
+        public Money unitPrice;
         public Integer quantity;
         public String chosenOption;
         public String notesText;
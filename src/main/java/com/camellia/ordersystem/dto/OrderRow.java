@@ -0,0 +1,16 @@
+package com.camellia.ordersystem.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only order header for the all-orders read paths: the columns the response
+ * needs, selected directly instead of loading managed OrderEntity instances.
+ */
+public record OrderRow(
+        Integer orderId,
+        String tableId,
+        BigDecimal totalPrice,
+        String orderStatus,
+        LocalDateTime createdAt) {
+}
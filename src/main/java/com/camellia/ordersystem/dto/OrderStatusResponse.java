@@ -0,0 +1,19 @@
+package com.camellia.ordersystem.dto;
+
+/**
+ * Result of PATCH /api/all_orders/{orderId}.
+ * changed is false when the order was already in the requested status.
+ */
+public class OrderStatusResponse {
+    public Integer orderId;
+    public String orderStatus;
+    public boolean changed;
+
+    public OrderStatusResponse() {}
+
+    public OrderStatusResponse(Integer orderId, String orderStatus, boolean changed) {
+        this.orderId = orderId;
+        this.orderStatus = orderStatus;
+        this.changed = changed;
+    }
+}
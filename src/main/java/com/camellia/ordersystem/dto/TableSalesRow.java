@@ -0,0 +1,25 @@
+package com.camellia.ordersystem.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One table's day: orders placed, how many were cancelled, revenue net of
+ * cancellations and the average created -> READY time over ticketCount orders
+ * (null when none reached READY). Orders cancelled after READY still count as tickets.
+ */
+public record TableSalesRow(
+        String tableId,
+        LocalDate salesDate,
+        long orderCount,
+        long cancelledCount,
+        BigDecimal revenue,
+        long ticketCount,
+        Double averageTicketSeconds) {
+
+    public TableSalesRow(String tableId, LocalDate salesDate, long orderCount, long cancelledCount,
+                         BigDecimal revenue, long ticketCount, long ticketSeconds) {
+        this(tableId, salesDate, orderCount, cancelledCount, revenue, ticketCount,
+                ticketCount > 0 ? (double) ticketSeconds / ticketCount : null);
+    }
+}
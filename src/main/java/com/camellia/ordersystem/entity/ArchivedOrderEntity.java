@@ -0,0 +1,47 @@
+package com.camellia.ordersystem.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A served or cancelled order moved out of the live tables by OrderArchiver. Read-only;
+ * keeps its original id. See migration 009.
+ */
+@Entity
+@Table(name="orders_archive", indexes = {
+        @Index(name="idx_orders_archive_table_order_id", columnList="table_id, order_id"),
+        @Index(name="idx_orders_archive_created_at", columnList="created_at")
+})
+public class ArchivedOrderEntity {
+    @Id
+    @Column(name="order_id")
+    private Integer orderId;
+
+    @Column(name="table_id", nullable=false)
+    private String tableId;
+
+    @Column(name="total_price", nullable=false, precision=10, scale=2)
+    private BigDecimal totalPrice;
+
+    @Column(name="order_status", nullable=false)
+    private String orderStatus;
+
+    @Column(name="created_at", nullable=false)
+    private LocalDateTime createdAt;
+
+    @Column(name="archived_at", nullable=false)
+    private LocalDateTime archivedAt;
+
+    public Integer getOrderId() { return orderId; }
+    public String getTableId() { return tableId; }
+    public BigDecimal getTotalPrice() { return totalPrice; }
+    public String getOrderStatus() { return orderStatus; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+}
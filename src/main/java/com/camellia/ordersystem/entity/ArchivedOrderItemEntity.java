@@ -0,0 +1,58 @@
+package com.camellia.ordersystem.entity;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A line of an archived order. Plain ids instead of associations, and the menu item
+ * name captured when archived, so archived orders read the same after menu items
+ * are deleted.
+ */
+@Entity
+@Table(name="order_item_archive", indexes = {
+        @Index(name="idx_order_item_archive_order", columnList="order_id")
+})
+public class ArchivedOrderItemEntity {
+    @Id
+    @Column(name="order_item_id")
+    private Integer orderItemId;
+
+    @Column(name="order_id", nullable=false)
+    private Integer orderId;
+
+    @Column(name="menu_item_id")
+    private Integer menuItemId;
+
+    @Column(name="item_name")
+    private String itemName;
+
+    @Column(name="quantity", nullable=false)
+    private Integer quantity;
+
+    @Column(name="customer_name")
+    private String customerName;
+
+    @Column(name="chosen_option")
+    private String chosenOption;
+
+    @Column(name="notes_text")
+    private String notesText;
+
+    @Column(name="unit_price", precision=10, scale=2)
+    private BigDecimal unitPrice;
+
+    public Integer getOrderItemId() { return orderItemId; }
+    public Integer getOrderId() { return orderId; }
+    public Integer getMenuItemId() { return menuItemId; }
+    public String getItemName() { return itemName; }
+    public Integer getQuantity() { return quantity; }
+    public String getCustomerName() { return customerName; }
+    public String getChosenOption() { return chosenOption; }
+    public String getNotesText() { return notesText; }
+    public BigDecimal getUnitPrice() { return unitPrice; }
+}
@@ -0,0 +1,40 @@
+package com.camellia.ordersystem.entity;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A note on an archived order line, as captured at order time.
+ */
+@Entity
+@Table(name="order_item_note_archive", indexes = {
+        @Index(name="idx_order_item_note_archive_order_item", columnList="order_item_id")
+})
+public class ArchivedOrderItemNoteEntity {
+    @Id
+    @Column(name="order_item_note_id")
+    private Integer orderItemNoteId;
+
+    @Column(name="order_item_id", nullable=false)
+    private Integer orderItemId;
+
+    @Column(name="note_id")
+    private Integer noteId;
+
+    @Column(name="note_name", nullable=false)
+    private String noteName;
+
+    @Column(name="note_price", nullable=false, precision=10, scale=2)
+    private BigDecimal notePrice;
+
+    public Integer getOrderItemNoteId() { return orderItemNoteId; }
+    public Integer getOrderItemId() { return orderItemId; }
+    public Integer getNoteId() { return noteId; }
+    public String getNoteName() { return noteName; }
+    public BigDecimal getNotePrice() { return notePrice; }
+}
@@ -0,0 +1,56 @@
+package com.camellia.ordersystem.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+/**
+ * Rollup: quantity sold and revenue per menu item per hour (by order creation time),
+ * net of cancelled orders. Maintained incrementally by SalesRollup; see migration 008.
+ */
+@Entity
+@Table(name="item_sales_hourly")
+@IdClass(ItemSalesHourlyEntity.Key.class)
+public class ItemSalesHourlyEntity {
+    // Plain id, not an association: rollups outlive menu items
+    @Id
+    @Column(name="menu_item_id")
+    private Integer menuItemId;
+
+    @Id
+    @Column(name="hour_start")
+    private LocalDateTime hourStart;
+
+    @Column(name="quantity", nullable=false)
+    private long quantity;
+
+    @Column(name="revenue", nullable=false, precision=12, scale=2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    public Integer getMenuItemId() { return menuItemId; }
+    public LocalDateTime getHourStart() { return hourStart; }
+    public long getQuantity() { return quantity; }
+    public BigDecimal getRevenue() { return revenue; }
+
+    public static class Key implements Serializable {
+        private Integer menuItemId;
+        private LocalDateTime hourStart;
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && Objects.equals(menuItemId, k.menuItemId) && Objects.equals(hourStart, k.hourStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(menuItemId, hourStart);
+        }
+    }
+}
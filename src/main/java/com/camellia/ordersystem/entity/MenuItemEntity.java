@@ -10,14 +10,17 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "menu_item")
 public class MenuItemEntity {
 
+    // Pooled sequence (not IDENTITY) so bulk menu imports can batch inserts; see migration 007
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "menu_item_seq")
+    @SequenceGenerator(name = "menu_item_seq", sequenceName = "menu_item_seq", allocationSize = 50)
     @Column(name = "item_id")
     private Integer itemId;
 
@@ -30,12 +33,18 @@ public class MenuItemEntity {
     @Column(name = "item_price", nullable = false, precision = 10, scale = 2)
     private BigDecimal itemPrice;
 
-    @Column(name = "soldout", nullable = false)
+    // Never part of an entity UPDATE: the sold-out writer changes this column behind
+    // the entity's back, and a full-row update would write a stale value over it
+    @Column(name = "soldout", nullable = false, updatable = false)
     private Boolean soldout;
 
     @Column(name = "item_picture_url")
     private String itemPictureUrl;
 
+    // Retired items are off the menu but kept, so past orders still reference them
+    @Column(name = "retired", nullable = false)
+    private Boolean retired = false;
+
     @OneToMany(mappedBy = "menuItem", fetch = FetchType.LAZY,
                cascade = CascadeType.ALL,
                orphanRemoval = true)
@@ -71,6 +80,9 @@ public class MenuItemEntity {
     public String getItemPictureUrl() { return itemPictureUrl; }
     public void setItemPictureUrl(String itemPictureUrl) { this.itemPictureUrl = itemPictureUrl; }
 
+    public Boolean getRetired() { return retired; }
+    public void setRetired(Boolean retired) { this.retired = retired; }
+
     public java.util.List<MenuItemOptionEntity> getOptions() {
         if (options == null) {
             options = new java.util.ArrayList<>();
@@ -9,8 +9,10 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 @Table(name = "menu_item_note")
 public class MenuItemNoteEntity {
 
+    // Pooled sequence (not IDENTITY) so bulk menu imports can batch inserts; see migration 007
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "menu_item_note_seq")
+    @SequenceGenerator(name = "menu_item_note_seq", sequenceName = "menu_item_note_seq", allocationSize = 50)
     @Column(name = "note_id")
     private Integer noteId;
 
@@ -7,10 +7,17 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name="orders")
+@Table(name="orders", indexes = {
+        @Index(name="idx_orders_status_order_id", columnList="order_status, order_id"),
+        @Index(name="idx_orders_table_order_id", columnList="table_id, order_id"),
+        @Index(name="idx_orders_created_at", columnList="created_at"),
+        @Index(name="idx_orders_status_created_at", columnList="order_status, created_at")
+})
 public class OrderEntity {
+    // Pooled sequence (not IDENTITY) so Hibernate can batch inserts; see migration 004
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     @Column(name="order_id")
     private Integer orderId;
 
@@ -26,6 +33,16 @@ public class OrderEntity {
     @Column(name="created_at", nullable=false)
     private LocalDateTime createdAt;
 
+    // Open tab: later rounds for the table are appended to this order until it is closed;
+    // at most one per table (partial unique index, migration 011)
+    @Column(name="tab_open", nullable=false)
+    private boolean tabOpen;
+
+    // Optimistic lock; status transitions bump it in their conditional UPDATE
+    @Version
+    @Column(name="version", nullable=false)
+    private Long version;
+
     @OneToMany(mappedBy="order", cascade=CascadeType.ALL, orphanRemoval=true)
     private List<OrderItemEntity> orderItems = new ArrayList<>();
 
@@ -46,4 +63,7 @@ public class OrderEntity {
     public String getOrderStatus() { return orderStatus; }
     public void setOrderStatus(String orderStatus) { this.orderStatus = orderStatus; }
     public List<OrderItemEntity> getOrderItems() { return orderItems; }
+    public Long getVersion() { return version; }
+    public boolean isTabOpen() { return tabOpen; }
+    public void setTabOpen(boolean tabOpen) { this.tabOpen = tabOpen; }
 }
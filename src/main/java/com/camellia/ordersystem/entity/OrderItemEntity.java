@@ -1,24 +1,36 @@
 package com.camellia.ordersystem.entity;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name="order_item")
+@Table(name="order_item", indexes = {
+        @Index(name="idx_order_item_order", columnList="order_id"),
+        // Backs the "is this menu item used?" check before a menu item is deleted; see migration 010
+        @Index(name="idx_order_item_menu_item", columnList="menu_item_id")
+})
 public class OrderItemEntity {
+    // Pooled sequence (not IDENTITY) so Hibernate can batch inserts; see migration 004
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_seq", allocationSize = 50)
     @Column(name="order_item_id")
     private Integer orderItemId;
 
@@ -42,9 +54,14 @@ public class OrderItemEntity {
     @Column(name="chosen_option")
     private String chosenOption;
 
+    // Display copy of the notes; pricing and reporting use the notes collection
     @Column(name="notes_text")
     private String notesText;
 
+    @OneToMany(mappedBy="orderItem", cascade=CascadeType.ALL, orphanRemoval=true)
+    @JsonIgnore
+    private List<OrderItemNoteEntity> notes = new ArrayList<>();
+
     // Store the calculated unit price (base + option + notes) at the time of order
     @Column(name="unit_price", precision=10, scale=2)
     private BigDecimal unitPrice;
@@ -57,10 +74,16 @@ public class OrderItemEntity {
     public void setNotesText(String notesText) { this.notesText = notesText; }
     public void setUnitPrice(BigDecimal unitPrice) { this.unitPrice = unitPrice; }
 
+    public void addNote(OrderItemNoteEntity note) {
+        note.setOrderItem(this);
+        notes.add(note);
+    }
+
     public MenuItemEntity getMenuItem() { return menuItem; }
     public Integer getQuantity() { return quantity; }
     public String getCustomerName() { return customerName; }
     public String getChosenOption() { return chosenOption; }
     public String getNotesText() { return notesText; }
     public BigDecimal getUnitPrice() { return unitPrice; }
+    public List<OrderItemNoteEntity> getNotes() { return notes; }
 }
@@ -0,0 +1,67 @@
+package com.camellia.ordersystem.entity;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * One note on an order line, captured at order time: the menu note id (null for
+ * free-text notes, or once the menu note is deleted), its name and the amount it
+ * added to the unit price. Reporting groups by note_id instead of parsing notes_text.
+ */
+@Entity
+@Table(name="order_item_note", indexes = {
+        @Index(name="idx_order_item_note_order_item", columnList="order_item_id"),
+        @Index(name="idx_order_item_note_note", columnList="note_id")
+})
+public class OrderItemNoteEntity {
+    // Pooled sequence so a line's notes batch with the order's other inserts; see migration 006
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_note_seq")
+    @SequenceGenerator(name = "order_item_note_seq", sequenceName = "order_item_note_seq", allocationSize = 50)
+    @Column(name="order_item_note_id")
+    private Integer orderItemNoteId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_item_id", nullable = false)
+    @JsonIgnore
+    private OrderItemEntity orderItem;
+
+    // Plain id, not an association: menu edits replace notes, and the order keeps
+    // its captured name and price either way (the FK is ON DELETE SET NULL)
+    @Column(name="note_id")
+    private Integer noteId;
+
+    @Column(name="note_name", nullable=false)
+    private String noteName;
+
+    @Column(name="note_price", nullable=false, precision=10, scale=2)
+    private BigDecimal notePrice;
+
+    public OrderItemNoteEntity() {}
+
+    public OrderItemNoteEntity(Integer noteId, String noteName, BigDecimal notePrice) {
+        this.noteId = noteId;
+        this.noteName = noteName;
+        this.notePrice = notePrice;
+    }
+
+    public void setOrderItem(OrderItemEntity orderItem) { this.orderItem = orderItem; }
+
+    public Integer getOrderItemNoteId() { return orderItemNoteId; }
+    public Integer getNoteId() { return noteId; }
+    public String getNoteName() { return noteName; }
+    public BigDecimal getNotePrice() { return notePrice; }
+}
@@ -0,0 +1,60 @@
+package com.camellia.ordersystem.entity;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Order lifecycle: NEW -> PREPARING -> READY -> SERVED, and any open order may be
+ * CANCELLED. Stored by name in orders.order_status.
+ */
+public enum OrderStatus {
+    NEW,
+    PREPARING,
+    READY,
+    SERVED,
+    CANCELLED;
+
+    /** Statuses an order may move to this one from. */
+    public Set<OrderStatus> allowedFrom() {
+        return switch (this) {
+            case NEW -> EnumSet.noneOf(OrderStatus.class);
+            case PREPARING -> EnumSet.of(NEW);
+            case READY -> EnumSet.of(PREPARING);
+            case SERVED -> EnumSet.of(READY);
+            case CANCELLED -> EnumSet.of(NEW, PREPARING, READY);
+        };
+    }
+
+    public boolean isTerminal() {
+        return this == SERVED || this == CANCELLED;
+    }
+
+    public static List<String> terminalNames() {
+        return List.of(SERVED.name(), CANCELLED.name());
+    }
+
+    /**
+     * Parse a status from a request body. Accepts a bare or JSON-quoted name in any case,
+     * and the legacy "ACCEPTED" (now PREPARING). Returns null if it is not a known status.
+     */
+    public static OrderStatus parse(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        String name = raw.trim();
+        if (name.length() >= 2 && name.startsWith("\"") && name.endsWith("\"")) {
+            name = name.substring(1, name.length() - 1).trim();
+        }
+        name = name.toUpperCase();
+        if ("ACCEPTED".equals(name)) {
+            return PREPARING;
+        }
+        for (OrderStatus s : values()) {
+            if (s.name().equals(name)) {
+                return s;
+            }
+        }
+        return null;
+    }
+}
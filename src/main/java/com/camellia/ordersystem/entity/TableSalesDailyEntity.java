@@ -0,0 +1,69 @@
+package com.camellia.ordersystem.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+/**
+ * Rollup: orders, cancellations, revenue (net of cancelled orders) and kitchen ticket
+ * time per table per day, by order creation date. ticket_seconds is the sum of
+ * created -> READY times over ticket_count orders, including orders cancelled after
+ * READY. Maintained incrementally by SalesRollup; see migration 008.
+ */
+@Entity
+@Table(name="table_sales_daily")
+@IdClass(TableSalesDailyEntity.Key.class)
+public class TableSalesDailyEntity {
+    @Id
+    @Column(name="table_id")
+    private String tableId;
+
+    @Id
+    @Column(name="sales_date")
+    private LocalDate salesDate;
+
+    @Column(name="order_count", nullable=false)
+    private long orderCount;
+
+    @Column(name="cancelled_count", nullable=false)
+    private long cancelledCount;
+
+    @Column(name="revenue", nullable=false, precision=12, scale=2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name="ticket_count", nullable=false)
+    private long ticketCount;
+
+    @Column(name="ticket_seconds", nullable=false)
+    private long ticketSeconds;
+
+    public String getTableId() { return tableId; }
+    public LocalDate getSalesDate() { return salesDate; }
+    public long getOrderCount() { return orderCount; }
+    public long getCancelledCount() { return cancelledCount; }
+    public BigDecimal getRevenue() { return revenue; }
+    public long getTicketCount() { return ticketCount; }
+    public long getTicketSeconds() { return ticketSeconds; }
+
+    public static class Key implements Serializable {
+        private String tableId;
+        private LocalDate salesDate;
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && Objects.equals(tableId, k.tableId) && Objects.equals(salesDate, k.salesDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tableId, salesDate);
+        }
+    }
+}
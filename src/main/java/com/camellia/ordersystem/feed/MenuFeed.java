@@ -0,0 +1,83 @@
+package com.camellia.ordersystem.feed;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Push feed of sold-out changes for customer menus (server-sent events).
+ *
+ * Clients load GET /api/menu first and then apply "menu-soldout" events on top. There
+ * is no history or resume: a client that reconnects reloads the menu, which is a 304
+ * when nothing changed. Events are sent on a single dispatcher thread, in order, so a
+ * slow client never blocks a toggle.
+ */
+@Component
+public class MenuFeed {
+
+    public static final String SOLDOUT = "menu-soldout";
+
+    /** An item's new sold-out flag. */
+    public record SoldOutChange(Integer itemId, boolean soldout) {}
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuFeed.class);
+
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "menu-feed");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public MenuFeed() {
+        dispatcher.scheduleAtFixedRate(this::heartbeat, OrderFeed.HEARTBEAT_SECONDS, OrderFeed.HEARTBEAT_SECONDS,
+                TimeUnit.SECONDS);
+    }
+
+    public void soldoutChanged(Integer itemId, boolean soldout) {
+        SoldOutChange change = new SoldOutChange(itemId, soldout);
+        dispatcher.execute(() -> subscribers.forEach(
+                emitter -> send(emitter, SseEmitter.event().name(SOLDOUT).data(change))));
+    }
+
+    /** Open a stream for one menu screen. */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(OrderFeed.EMITTER_TIMEOUT_MS);
+        subscribers.add(emitter);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+        return emitter;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(SseEmitter::complete);
+    }
+
+    private void heartbeat() {
+        subscribers.forEach(emitter -> send(emitter, SseEmitter.event().comment("keep-alive")));
+    }
+
+    // Only called on the dispatcher thread, so sends to one emitter never interleave
+    private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping menu feed subscriber: {}", e.toString());
+            subscribers.remove(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+}
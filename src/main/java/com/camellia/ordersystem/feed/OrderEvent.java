@@ -0,0 +1,21 @@
+package com.camellia.ordersystem.feed;
+
+import com.camellia.ordersystem.dto.OrderResponseDto;
+
+/**
+ * One change pushed to live order screens.
+ * "order-created" events carry the full order; "order-status" events only the new status;
+ * "order-appended" events carry a round added to an open tab: only the new lines, with
+ * the tab's new total and status.
+ */
+public record OrderEvent(
+        long seq,
+        String type,
+        Integer orderId,
+        String orderStatus,
+        OrderResponseDto order) {
+
+    public static final String CREATED = "order-created";
+    public static final String STATUS = "order-status";
+    public static final String APPENDED = "order-appended";
+}
@@ -0,0 +1,234 @@
+package com.camellia.ordersystem.feed;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.camellia.ordersystem.dto.OrderResponseDto;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Push feed of order changes for kitchen screens (server-sent events).
+ *
+ * New subscribers get a snapshot of active orders, then every change as it happens.
+ * Each event carries a resume token ("epoch-seq") as its SSE id; a reconnecting client
+ * sends it back (EventSource does this via Last-Event-ID) and gets only the events it
+ * missed, as long as they are still in the in-memory history. Otherwise, or after a
+ * restart, it gets a fresh snapshot.
+ *
+ * Events are fanned out on a single dispatcher thread so order is preserved and a slow
+ * screen never blocks the request that produced the change.
+ */
+@Component
+public class OrderFeed {
+
+    static final int HISTORY_SIZE = 1000;
+    static final long EMITTER_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30);
+    static final long HEARTBEAT_SECONDS = 15;
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderFeed.class);
+
+    // Distinguishes tokens issued by this process from those of a previous run
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final ArrayDeque<OrderEvent> history = new ArrayDeque<>(); // guarded by this
+    private long seq;                                                  // guarded by this
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "order-feed");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public OrderFeed() {
+        dispatcher.scheduleAtFixedRate(this::heartbeat, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public void orderCreated(OrderResponseDto order) {
+        publish(OrderEvent.CREATED, order.orderId, order.orderStatus, order);
+    }
+
+    public void itemsAppended(OrderResponseDto round) {
+        publish(OrderEvent.APPENDED, round.orderId, round.orderStatus, round);
+    }
+
+    public void statusChanged(Integer orderId, String orderStatus) {
+        publish(OrderEvent.STATUS, orderId, orderStatus, null);
+    }
+
+    /**
+     * Open a stream for one screen.
+     *
+     * @param resumeToken   id of the last event the client saw, or null
+     * @param activeOrders  loads the snapshot when the client cannot resume
+     */
+    public SseEmitter subscribe(String resumeToken, Supplier<List<OrderResponseDto>> activeOrders) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        Subscriber sub = new Subscriber(emitter);
+
+        List<OrderEvent> missed;
+        long head;
+        synchronized (this) {
+            // Register before loading anything: events published from here on are
+            // queued on the subscriber and delivered after the snapshot/replay
+            subscribers.add(sub);
+            head = seq;
+            missed = eventsAfter(resumeToken);
+        }
+        emitter.onCompletion(() -> subscribers.remove(sub));
+        emitter.onTimeout(() -> subscribers.remove(sub));
+        emitter.onError(e -> subscribers.remove(sub));
+
+        if (missed != null) {
+            sub.open(null, missed);
+        } else {
+            SseEmitter.SseEventBuilder snapshot = SseEmitter.event()
+                    .id(token(head))
+                    .name("snapshot")
+                    .data(activeOrders.get());
+            sub.open(snapshot, List.of());
+        }
+        return emitter;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(s -> s.emitter.complete());
+    }
+
+    private void publish(String type, Integer orderId, String orderStatus, OrderResponseDto order) {
+        OrderEvent event;
+        synchronized (this) {
+            event = new OrderEvent(++seq, type, orderId, orderStatus, order);
+            history.addLast(event);
+            if (history.size() > HISTORY_SIZE) {
+                history.removeFirst();
+            }
+        }
+        dispatcher.execute(() -> subscribers.forEach(s -> s.deliver(event)));
+    }
+
+    /**
+     * Events after the given token, or null when the gap cannot be filled from history.
+     */
+    synchronized List<OrderEvent> eventsAfter(String resumeToken) {
+        if (resumeToken == null || resumeToken.isBlank()) {
+            return null;
+        }
+        int dash = resumeToken.lastIndexOf('-');
+        if (dash < 0 || !resumeToken.substring(0, dash).equals(epoch)) {
+            return null;
+        }
+        long last;
+        try {
+            last = Long.parseLong(resumeToken.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        long oldest = history.isEmpty() ? seq + 1 : history.peekFirst().seq();
+        if (last > seq || last < oldest - 1) {
+            return null;
+        }
+        List<OrderEvent> out = new ArrayList<>();
+        for (OrderEvent e : history) {
+            if (e.seq() > last) {
+                out.add(e);
+            }
+        }
+        return out;
+    }
+
+    String token(long eventSeq) {
+        return epoch + "-" + eventSeq;
+    }
+
+    private void heartbeat() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+
+    // Guarded by a lock rather than synchronized: sends write to the socket and
+    // open() runs on the request thread, which may be virtual
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private List<OrderEvent> pending = new ArrayList<>(); // null once open
+        private long lastSent;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void open(SseEmitter.SseEventBuilder first, List<OrderEvent> replay) {
+            lock.lock();
+            try {
+                if (first != null) {
+                    send(first);
+                }
+                replay.forEach(this::sendEvent);
+                // Events queued while the snapshot was loading; some may already be
+                // reflected in it, and clients apply events idempotently by orderId
+                pending.forEach(this::sendEvent);
+                pending = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void deliver(OrderEvent event) {
+            lock.lock();
+            try {
+                if (pending != null) {
+                    pending.add(event);
+                } else {
+                    sendEvent(event);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void heartbeat() {
+            lock.lock();
+            try {
+                if (pending == null) {
+                    send(SseEmitter.event().comment("keep-alive"));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void sendEvent(OrderEvent event) {
+            if (event.seq() <= lastSent) {
+                return;
+            }
+            lastSent = event.seq();
+            send(SseEmitter.event().id(token(event.seq())).name(event.type()).data(event));
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Dropping order feed subscriber: {}", e.toString());
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.camellia.ordersystem.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters for the order and menu hot paths, scraped from /actuator/prometheus.
+ *
+ * Timers split a request into the phases we tune separately: pricing a new order
+ * against the catalog, persistence (orders.persistence, tagged by operation) and DTO
+ * mapping (orders.mapping, tagged by view). The order list and the live feed snapshot
+ * read orders the same way but are timed under their own tags ({@link OrderView}), so
+ * a burst of screens reconnecting does not show up as slow /api/all_orders pages.
+ * Counters track orders, their lines and rejected orders by reason.
+ *
+ * Callers take System.nanoTime() before a phase and pass it to the matching record
+ * method, so a phase that throws is simply not recorded.
+ */
+@Component
+public class OrderMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer pricing;
+    private final Timer saveOrder;
+    private final Timer mapMenu;
+    private final OrderView allOrders;
+    private final OrderView feedSnapshot;
+    private final Counter accepted;
+    private final Counter lines;
+
+    public OrderMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.pricing = Timer.builder("orders.pricing")
+                .description("Validating and pricing the lines of a new order against the menu catalog")
+                .register(registry);
+        this.saveOrder = persistence("save");
+        this.mapMenu = mapping("menu");
+        this.allOrders = new OrderView(persistence("page"), persistence("items"), mapping("all_orders"));
+        this.feedSnapshot = new OrderView(
+                persistence("snapshot_page"), persistence("snapshot_items"), mapping("feed_snapshot"));
+        this.accepted = Counter.builder("orders.accepted").description("Orders accepted").register(registry);
+        this.lines = Counter.builder("orders.lines").description("Line items in accepted orders").register(registry);
+    }
+
+    private Timer persistence(String operation) {
+        return Timer.builder("orders.persistence")
+                .description("Database work on the order paths")
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    private Timer mapping(String view) {
+        return Timer.builder("orders.mapping")
+                .description("Building response DTOs (and JSON for the pre-rendered menu)")
+                .tag("view", view)
+                .register(registry);
+    }
+
+    public void pricing(long startNanos) {
+        record(pricing, startNanos);
+    }
+
+    public void saveOrder(long startNanos) {
+        record(saveOrder, startNanos);
+    }
+
+    public void mapMenu(long startNanos) {
+        record(mapMenu, startNanos);
+    }
+
+    /** Timers for GET /api/all_orders. */
+    public OrderView allOrders() {
+        return allOrders;
+    }
+
+    /** Timers for the snapshot sent when a screen connects to the live feed. */
+    public OrderView feedSnapshot() {
+        return feedSnapshot;
+    }
+
+    public void orderCreated(int lineCount) {
+        accepted.increment();
+        lines.increment(lineCount);
+    }
+
+    /** Reason is a short fixed code (e.g. "empty_items"), never request data, to keep tag cardinality bounded. */
+    public void orderRejected(String reason) {
+        Counter.builder("orders.rejected")
+                .description("Orders refused (400 invalid, 429 rate limited)")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    private static void record(Timer timer, long startNanos) {
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** The phases of one order read path: header page query, items query and DTO mapping. */
+    public static final class OrderView {
+
+        private final Timer readPage;
+        private final Timer readItems;
+        private final Timer mapping;
+
+        private OrderView(Timer readPage, Timer readItems, Timer mapping) {
+            this.readPage = readPage;
+            this.readItems = readItems;
+            this.mapping = mapping;
+        }
+
+        public void readPage(long startNanos) {
+            record(readPage, startNanos);
+        }
+
+        public void readItems(long startNanos) {
+            record(readItems, startNanos);
+        }
+
+        /** Time spent building order DTOs, measured by the caller (it may span several steps). */
+        public void mappingNanos(long nanos) {
+            mapping.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.camellia.ordersystem.metrics;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * SQL statements per HTTP request, published as the "http.server.requests.sql"
+ * distribution summary tagged with method and URI pattern (same tags as Spring's
+ * http.server.requests timer, so the two line up on a dashboard).
+ *
+ * Hibernate reports every statement it prepares to {@link Inspector}, which counts
+ * it against the request running on the current thread. A JDBC batch is prepared
+ * once and counts once. Statements run off the request thread (the group-commit
+ * writer, the menu catalog refreshed after commit) are not attributed to a request.
+ */
+@Component
+public class RequestSqlMetrics extends OncePerRequestFilter implements HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+    private final MeterRegistry registry;
+
+    public RequestSqlMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        // An inspector configured explicitly (spring.jpa.properties) takes precedence
+        hibernateProperties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, new Inspector());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        int[] count = new int[1];
+        CURRENT.set(count);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            CURRENT.remove();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("http.server.requests.sql")
+                    .description("SQL statements prepared per request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .register(registry)
+                    .record(count[0]);
+        }
+    }
+
+    /** Counts statements against the current request; public so Hibernate can instantiate subclasses by name. */
+    public static class Inspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            int[] count = CURRENT.get();
+            if (count != null) {
+                count[0]++;
+            }
+            return sql;
+        }
+    }
+}
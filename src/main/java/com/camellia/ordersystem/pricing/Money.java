@@ -0,0 +1,89 @@
+package com.camellia.ordersystem.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * An amount of money as a whole number of minor units (cents) in one currency.
+ *
+ * Arithmetic is exact long arithmetic and fails on overflow instead of wrapping;
+ * mixing currencies is an error. Decimal amounts are only converted at the edges:
+ * from and to the NUMERIC(10,2) columns, and to a JSON number, so API payloads keep
+ * the decimal form they always had (10.50).
+ */
+public record Money(long minor, Currency currency) implements Comparable<Money> {
+
+    /** The currency the menu is priced in. */
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("USD");
+
+    /** Rounding applied when a decimal amount has more places than the currency. */
+    public static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
+
+    public static final Money ZERO = new Money(0, DEFAULT_CURRENCY);
+
+    public Money {
+        if (currency == null) {
+            throw new IllegalArgumentException("currency is required");
+        }
+    }
+
+    public static Money ofMinor(long minor) {
+        return minor == 0 ? ZERO : new Money(minor, DEFAULT_CURRENCY);
+    }
+
+    /** The amount in the default currency, rounded to cents with {@link #ROUNDING}; null stays null. */
+    @JsonCreator
+    public static Money of(BigDecimal amount) {
+        return amount == null ? null : of(amount, DEFAULT_CURRENCY, ROUNDING);
+    }
+
+    public static Money of(BigDecimal amount, Currency currency, RoundingMode rounding) {
+        int places = Math.max(0, currency.getDefaultFractionDigits());
+        return new Money(amount.setScale(places, rounding).movePointRight(places).longValueExact(), currency);
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return other.minor == 0 ? this : new Money(Math.addExact(minor, other.minor), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return other.minor == 0 ? this : new Money(Math.subtractExact(minor, other.minor), currency);
+    }
+
+    public Money times(int quantity) {
+        return quantity == 1 ? this : new Money(Math.multiplyExact(minor, (long) quantity), currency);
+    }
+
+    public int signum() {
+        return Long.signum(minor);
+    }
+
+    /** The decimal amount with the currency's scale (10.50), as stored and sent to clients. */
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minor, Math.max(0, currency.getDefaultFractionDigits()));
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minor, other.minor);
+    }
+
+    @Override
+    public String toString() {
+        return currency.getCurrencyCode() + " " + toBigDecimal().toPlainString();
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " and " + other.currency);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.camellia.ordersystem.pricing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.camellia.ordersystem.catalog.CatalogItem;
+import com.camellia.ordersystem.catalog.MenuSnapshot;
+import com.camellia.ordersystem.dto.CreateOrderRequest;
+
+/**
+ * The pricing rules for order lines, in one place.
+ *
+ * Works only on immutable menu snapshots (whose items carry their option and note
+ * lookup tables) and plain request lines: no JPA, no database, no Spring. Order
+ * creation, tab rounds, re-pricing jobs, tests and benchmarks all price through here.
+ *
+ * Rules: a line's unit price is the chosen option's price, or the item's base price
+ * when no option is chosen or the option is unknown, plus the charge of every note.
+ * A note's charge is its menu price when positive, otherwise nothing; free-text notes
+ * are not on the menu and cost nothing.
+ */
+public final class PricingEngine {
+
+    private PricingEngine() {}
+
+    /** A request the engine cannot price. code is the rejection reason recorded in metrics. */
+    public static final class PricingException extends RuntimeException {
+        private final String code;
+
+        PricingException(String code, String message) {
+            super(message);
+            this.code = code;
+        }
+
+        public String code() {
+            return code;
+        }
+    }
+
+    /** One priced line: the resolved menu item and notes, the kitchen note text and the unit price. */
+    public record PricedLine(CatalogItem item, int quantity, List<CatalogItem.Note> notes, String notesText,
+                             Money unitPrice) {
+
+        public Money total() {
+            return unitPrice.times(quantity);
+        }
+    }
+
+    /** Priced lines in request order, and their total. */
+    public record PricedOrder(List<PricedLine> lines, Money total) {}
+
+    /** Price every request line against the snapshot. Throws PricingException on the first invalid line. */
+    public static PricedOrder price(MenuSnapshot menu, List<CreateOrderRequest.CreateOrderItem> items) {
+        List<PricedLine> lines = new ArrayList<>(items.size());
+        Money total = Money.ZERO;
+        for (CreateOrderRequest.CreateOrderItem it : items) {
+            if (it.menuItemId == null) {
+                throw new PricingException("missing_menu_item_id", "menuItemId is required for each order item");
+            }
+            CatalogItem item = menu.item(it.menuItemId);
+            if (item == null) {
+                throw new PricingException("unknown_menu_item", "Menu item not found: " + it.menuItemId);
+            }
+            PricedLine line = priceLine(item, it);
+            lines.add(line);
+            total = total.plus(line.total());
+        }
+        return new PricedOrder(lines, total);
+    }
+
+    /**
+     * Price one request line for a known item. Notes are resolved by id when the line
+     * has noteIds (unknown ids are rejected), otherwise by name, with unknown names
+     * kept as free text.
+     */
+    public static PricedLine priceLine(CatalogItem item, CreateOrderRequest.CreateOrderItem it) {
+        List<CatalogItem.Note> notes;
+        String notesText;
+        if (it.noteIds != null && !it.noteIds.isEmpty()) {
+            notes = new ArrayList<>(it.noteIds.size());
+            for (Integer noteId : it.noteIds) {
+                CatalogItem.Note note = item.note(noteId);
+                if (note == null) {
+                    throw new PricingException("unknown_note",
+                            "Note " + noteId + " not found on menu item " + item.itemId());
+                }
+                notes.add(note);
+            }
+            notesText = String.join(", ", notes.stream().map(CatalogItem.Note::noteName).toList());
+        } else {
+            List<String> names = it.normalizedNotes();
+            notes = new ArrayList<>(names.size());
+            for (String name : names) {
+                notes.add(item.note(name));
+            }
+            notesText = names.isEmpty() ? null : String.join(", ", names);
+        }
+        return new PricedLine(item, it.quantity, notes, notesText, unitPrice(item, it.chosenOption, notes));
+    }
+
+    /** Unit price of one line. Summed in cents; only the result is allocated. */
+    public static Money unitPrice(CatalogItem item, String chosenOption, List<CatalogItem.Note> notes) {
+        Money base = item.itemPrice();
+        if (chosenOption != null && !chosenOption.isBlank()) {
+            base = item.options().getOrDefault(chosenOption.trim(), base);
+        }
+        long price = base.minor();
+        for (int i = 0; i < notes.size(); i++) {
+            price = Math.addExact(price, Math.max(0, notes.get(i).notePrice().minor()));
+        }
+        return price == base.minor() ? base : new Money(price, base.currency());
+    }
+
+    /** What a note adds to the unit price, as captured on the order line. */
+    public static Money charge(CatalogItem.Note note) {
+        return note.notePrice().signum() > 0 ? note.notePrice() : Money.ZERO;
+    }
+}
@@ -1,7 +1,58 @@
 package com.camellia.ordersystem.repo;
 
+import java.util.List;
+
+import com.camellia.ordersystem.dto.MenuItemRow;
+import com.camellia.ordersystem.dto.MenuNoteRow;
+import com.camellia.ordersystem.dto.MenuOptionRow;
 import com.camellia.ordersystem.entity.MenuItemEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface MenuItemRepository extends JpaRepository<MenuItemEntity, Integer> {
+
+    // Options and notes are both bags, so they cannot be fetch-joined in one query.
+    // Run both inside one transaction to get fully initialized items in two statements.
+    // Both return the current menu only: retired items are left out.
+
+    @Query("select m from MenuItemEntity m left join fetch m.options o where m.retired = false order by m.itemId, o.optionId")
+    List<MenuItemEntity> findAllWithOptions();
+
+    @Query("select m from MenuItemEntity m left join fetch m.notes n where m.retired = false order by m.itemId, n.noteId")
+    List<MenuItemEntity> findAllWithNotes();
+
+    // Read model for the menu catalog: plain rows, nothing enters the persistence
+    // context and there is nothing to dirty-check. Current items only.
+
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.camellia.ordersystem.dto.MenuItemRow(m.itemId, m.itemName, m.itemPrice, m.soldout)
+            from MenuItemEntity m where m.retired = false order by m.itemId
+            """)
+    List<MenuItemRow> findMenuRows();
+
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.camellia.ordersystem.dto.MenuOptionRow(o.menuItem.itemId, o.optionName, o.optionPrice)
+            from MenuItemOptionEntity o where o.menuItem.retired = false order by o.menuItem.itemId, o.optionId
+            """)
+    List<MenuOptionRow> findOptionRows();
+
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.camellia.ordersystem.dto.MenuNoteRow(n.menuItem.itemId, n.noteId, n.noteName, n.notePrice)
+            from MenuItemNoteEntity n where n.menuItem.retired = false order by n.menuItem.itemId, n.noteId
+            """)
+    List<MenuNoteRow> findNoteRows();
 
-public interface MenuItemRepository extends JpaRepository<MenuItemEntity, Integer> {}
+    @Query("select m from MenuItemEntity m where m.retired = true order by m.itemId")
+    List<MenuItemEntity> findRetired();
 
+    // Retire (or restore) as one single-column UPDATE; no check against past orders needed
+    @Modifying
+    @Query("update MenuItemEntity m set m.retired = :retired where m.itemId = :itemId")
+    int updateRetired(@Param("itemId") Integer itemId, @Param("retired") boolean retired);
+}
@@ -0,0 +1,50 @@
+package com.camellia.ordersystem.repo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.camellia.ordersystem.dto.OrderItemRow;
+import com.camellia.ordersystem.dto.OrderRow;
+import com.camellia.ordersystem.entity.ArchivedOrderEntity;
+
+/**
+ * Reads of archived orders. Same filters and keyset paging as OrderRepository.findPage.
+ */
+public interface OrderArchiveRepository extends JpaRepository<ArchivedOrderEntity, Integer> {
+
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.camellia.ordersystem.dto.OrderRow(
+                o.orderId, o.tableId, o.totalPrice, o.orderStatus, o.createdAt)
+            from ArchivedOrderEntity o
+            where (:status is null or o.orderStatus = :status)
+              and (:tableId is null or o.tableId = :tableId)
+              and (cast(:from as LocalDateTime) is null or o.createdAt >= :from)
+              and (cast(:to as LocalDateTime) is null or o.createdAt < :to)
+              and (:beforeId is null or o.orderId < :beforeId)
+            order by o.orderId desc
+            """)
+    List<OrderRow> findPage(@Param("status") String status,
+                            @Param("tableId") String tableId,
+                            @Param("from") LocalDateTime from,
+                            @Param("to") LocalDateTime to,
+                            @Param("beforeId") Integer beforeId,
+                            Limit limit);
+
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.camellia.ordersystem.dto.OrderItemRow(
+                i.orderId, i.menuItemId, i.itemName, i.unitPrice, i.quantity,
+                i.chosenOption, i.notesText, i.customerName)
+            from ArchivedOrderItemEntity i
+            where i.orderId in :orderIds
+            order by i.orderItemId
+            """)
+    List<OrderItemRow> findItemRowsByOrderIds(@Param("orderIds") List<Integer> orderIds);
+}
@@ -0,0 +1,29 @@
+package com.camellia.ordersystem.repo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.camellia.ordersystem.dto.NoteUsageRow;
+import com.camellia.ordersystem.entity.OrderItemNoteEntity;
+
+public interface OrderItemNoteRepository extends JpaRepository<OrderItemNoteEntity, Integer> {
+
+    /**
+     * Note usage for orders created in [from, to) (either bound optional), grouped by
+     * menu note id and captured name, most ordered first. Quantities are line quantities.
+     */
+    @Query("""
+            select new com.camellia.ordersystem.dto.NoteUsageRow(
+                n.noteId, n.noteName, sum(oi.quantity), sum(n.notePrice * oi.quantity))
+            from OrderItemNoteEntity n join n.orderItem oi join oi.order o
+            where (cast(:from as LocalDateTime) is null or o.createdAt >= :from)
+              and (cast(:to as LocalDateTime) is null or o.createdAt < :to)
+            group by n.noteId, n.noteName
+            order by sum(oi.quantity) desc
+            """)
+    List<NoteUsageRow> findNoteUsage(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -1,6 +1,129 @@
 package com.camellia.ordersystem.repo;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import com.camellia.ordersystem.dto.OrderItemRow;
+import com.camellia.ordersystem.dto.OrderRow;
 import com.camellia.ordersystem.entity.OrderEntity;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface OrderRepository extends JpaRepository<OrderEntity, Integer> {
+
+    /**
+     * Keyset page of orders, newest first. Every filter is optional (null = no filter);
+     * beforeId is the cursor returned with the previous page. Returns header rows, not
+     * entities: nothing is added to the persistence context.
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.camellia.ordersystem.dto.OrderRow(
+                o.orderId, o.tableId, o.totalPrice, o.orderStatus, o.createdAt)
+            from OrderEntity o
+            where (:status is null or o.orderStatus = :status)
+              and (:tableId is null or o.tableId = :tableId)
+              and (cast(:from as LocalDateTime) is null or o.createdAt >= :from)
+              and (cast(:to as LocalDateTime) is null or o.createdAt < :to)
+              and (:beforeId is null or o.orderId < :beforeId)
+            order by o.orderId desc
+            """)
+    List<OrderRow> findPage(@Param("status") String status,
+                            @Param("tableId") String tableId,
+                            @Param("from") LocalDateTime from,
+                            @Param("to") LocalDateTime to,
+                            @Param("beforeId") Integer beforeId,
+                            Limit limit);
+
+    /**
+     * Move an order to nextStatus only if its current status is one of fromStatuses,
+     * in a single statement. Returns the number of rows changed (0 or 1). Cancelling
+     * an open tab also closes it.
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            update OrderEntity o
+            set o.orderStatus = :nextStatus, o.version = o.version + 1,
+                o.tabOpen = case when :nextStatus = 'CANCELLED' then false else o.tabOpen end
+            where o.orderId = :orderId and o.orderStatus in :fromStatuses
+            """)
+    int transitionStatus(@Param("orderId") Integer orderId,
+                         @Param("fromStatuses") Collection<String> fromStatuses,
+                         @Param("nextStatus") String nextStatus);
+
+    @Query("select o.orderStatus from OrderEntity o where o.orderId = :orderId")
+    Optional<String> findStatusById(@Param("orderId") Integer orderId);
+
+    /**
+     * Keyset page of orders not in the given statuses, newest first (the live feed
+     * snapshot, read page by page). beforeId is the last order id of the previous page.
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.camellia.ordersystem.dto.OrderRow(
+                o.orderId, o.tableId, o.totalPrice, o.orderStatus, o.createdAt)
+            from OrderEntity o
+            where o.orderStatus not in :statuses
+              and (:beforeId is null or o.orderId < :beforeId)
+            order by o.orderId desc
+            """)
+    List<OrderRow> findRowsByOrderStatusNotIn(@Param("statuses") Collection<String> statuses,
+                                              @Param("beforeId") Integer beforeId,
+                                              Limit limit);
+
+    /**
+     * All lines of the given orders with their menu item name, in one statement.
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.camellia.ordersystem.dto.OrderItemRow(
+                i.order.orderId, m.itemId, m.itemName, i.unitPrice, i.quantity,
+                i.chosenOption, i.notesText, i.customerName)
+            from OrderItemEntity i left join i.menuItem m
+            where i.order.orderId in :orderIds
+            order by i.orderItemId
+            """)
+    List<OrderItemRow> findItemRowsByOrderIds(@Param("orderIds") List<Integer> orderIds);
+
+    /**
+     * The table's open tab, if any (pass Limit.of(1)), with its row locked until the
+     * transaction ends, so concurrent rounds for a table apply one after the other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select new com.camellia.ordersystem.dto.OrderRow(
+                o.orderId, o.tableId, o.totalPrice, o.orderStatus, o.createdAt)
+            from OrderEntity o
+            where o.tableId = :tableId and o.tabOpen = true
+            order by o.orderId desc
+            """)
+    List<OrderRow> lockOpenTab(@Param("tableId") String tableId, Limit limit);
+
+    /**
+     * Add a round to an open tab: bump its total by delta. The status is left alone;
+     * only tabs the kitchen has not finished take rounds. Returns the number of rows
+     * changed (0 or 1).
+     */
+    @Modifying
+    @Query("""
+            update OrderEntity o
+            set o.totalPrice = o.totalPrice + :delta, o.version = o.version + 1
+            where o.orderId = :orderId and o.tabOpen = true
+            """)
+    int addToTab(@Param("orderId") Integer orderId, @Param("delta") BigDecimal delta);
 
-public interface OrderRepository extends JpaRepository<OrderEntity, Integer> {}
+    @Modifying
+    @Query("update OrderEntity o set o.tabOpen = false where o.orderId = :orderId and o.tabOpen = true")
+    int closeTab(@Param("orderId") Integer orderId);
+}
@@ -0,0 +1,51 @@
+package com.camellia.ordersystem.repo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.camellia.ordersystem.dto.ItemSalesRow;
+import com.camellia.ordersystem.dto.TableSalesRow;
+import com.camellia.ordersystem.entity.ItemSalesHourlyEntity;
+
+/**
+ * Reads of the sales rollup tables. Both queries touch only rollup rows (plus menu
+ * item names), never orders or order_item.
+ */
+public interface SalesRollupRepository extends JpaRepository<ItemSalesHourlyEntity, ItemSalesHourlyEntity.Key> {
+
+    /**
+     * Hourly item sales for hours starting in [from, to), optionally for one item.
+     */
+    @Query("""
+            select new com.camellia.ordersystem.dto.ItemSalesRow(
+                r.menuItemId, m.itemName, r.hourStart, r.quantity, r.revenue)
+            from ItemSalesHourlyEntity r left join MenuItemEntity m on m.itemId = r.menuItemId
+            where r.hourStart >= :from and r.hourStart < :to
+              and (:menuItemId is null or r.menuItemId = :menuItemId)
+            order by r.hourStart, r.menuItemId
+            """)
+    List<ItemSalesRow> findItemSales(@Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     @Param("menuItemId") Integer menuItemId);
+
+    /**
+     * Daily table sales for dates in [from, to), optionally for one table.
+     */
+    @Query("""
+            select new com.camellia.ordersystem.dto.TableSalesRow(
+                r.tableId, r.salesDate, r.orderCount, r.cancelledCount, r.revenue,
+                r.ticketCount, r.ticketSeconds)
+            from TableSalesDailyEntity r
+            where r.salesDate >= :from and r.salesDate < :to
+              and (:tableId is null or r.tableId = :tableId)
+            order by r.salesDate, r.tableId
+            """)
+    List<TableSalesRow> findTableSales(@Param("from") LocalDate from,
+                                       @Param("to") LocalDate to,
+                                       @Param("tableId") String tableId);
+}
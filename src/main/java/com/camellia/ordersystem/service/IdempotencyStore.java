@@ -0,0 +1,113 @@
+package com.camellia.ordersystem.service;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Remembers the result of requests that carried an Idempotency-Key, so a retried
+ * request gets the original result instead of running again. A retry that arrives
+ * while the first attempt is still running waits for it. Failed attempts are
+ * forgotten so they can be retried.
+ *
+ * Entries live in memory for a bounded time and count. Past max-entries, expired
+ * entries go first, then the oldest finished ones; when every entry is still running,
+ * new keys are refused with 503. This covers client retries and double submits, not
+ * deduplication across restarts or instances.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(@Value("${orders.idempotency.ttl-minutes:10}") long ttlMinutes,
+                            @Value("${orders.idempotency.max-entries:10000}") int maxEntries) {
+        this.ttlNanos = TimeUnit.MINUTES.toNanos(ttlMinutes);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Run action once per (scope, key). With a null or blank key the action just runs.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String scope, String key, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        String id = scope + ":" + key;
+        long now = System.nanoTime();
+        Entry mine = new Entry(now + ttlNanos);
+        Entry existing = entries.compute(id, (k, e) -> e == null || e.expiresAt - now < 0 ? mine : e);
+
+        if (existing != mine) {
+            try {
+                return (T) existing.result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException re) {
+                    throw re;
+                }
+                throw e;
+            }
+        }
+
+        if (entries.size() > maxEntries) {
+            evict(now);
+            if (entries.size() > maxEntries) {
+                ResponseStatusException full = new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Too many requests in progress; try again shortly");
+                entries.remove(id, mine);
+                mine.result.completeExceptionally(full);
+                throw full;
+            }
+        }
+        try {
+            T result = action.get();
+            mine.result.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            entries.remove(id, mine);
+            mine.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    // Requests still running are never evicted: a retry must find and wait for them
+    private synchronized void evict(long now) {
+        entries.values().removeIf(e -> e.expiresAt - now < 0 && e.result.isDone());
+        int excess = entries.size() - maxEntries;
+        if (excess <= 0) {
+            return;
+        }
+        // Drop a tenth of the cap more than needed, so a full store is not scanned for every new key
+        entries.entrySet().stream()
+                .filter(e -> e.getValue().result.isDone())
+                .sorted(Comparator.comparingLong(e -> e.getValue().expiresAt - now))
+                .limit(excess + maxEntries / 10)
+                .toList()
+                .forEach(e -> entries.remove(e.getKey(), e.getValue()));
+    }
+
+    private static final class Entry {
+        final long expiresAt;
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        Entry(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+}
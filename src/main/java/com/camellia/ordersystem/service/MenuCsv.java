@@ -0,0 +1,233 @@
+package com.camellia.ordersystem.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.camellia.ordersystem.dto.MenuImportItem;
+import com.camellia.ordersystem.dto.MenuItemNoteRequest;
+import com.camellia.ordersystem.dto.MenuItemOptionRequest;
+
+/**
+ * CSV form of the bulk menu format. One record per row, columns
+ * {@code kind,item_id,name,price,soldout}:
+ * <pre>
+ * kind,item_id,name,price,soldout
+ * item,12,Fried Rice,10.00,false
+ * option,,Chicken,11.00,
+ * note,,"Egg, fried",1.50,
+ * </pre>
+ * Option and note rows belong to the item row above them. Fields follow RFC 4180
+ * quoting, so names may contain commas, quotes and line breaks.
+ */
+public final class MenuCsv {
+
+    static final String HEADER = "kind,item_id,name,price,soldout";
+
+    private MenuCsv() {}
+
+    /** Items parsed lazily from the reader, one item (with its option and note rows) at a time. */
+    public static Iterator<MenuImportItem> read(Reader reader) {
+        return new Iterator<>() {
+            private final RecordReader records = new RecordReader(reader);
+            private List<String> pending = records.next();
+            private int row = 1;
+            {
+                if (pending != null && !pending.isEmpty() && "kind".equalsIgnoreCase(pending.get(0).trim())) {
+                    pending = records.next();
+                    row++;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return pending != null;
+            }
+
+            @Override
+            public MenuImportItem next() {
+                if (pending == null) {
+                    throw new NoSuchElementException();
+                }
+                if (!"item".equalsIgnoreCase(field(pending, 0))) {
+                    throw invalid(row, "expected an item row before option and note rows");
+                }
+                MenuImportItem item = new MenuImportItem();
+                String id = field(pending, 1);
+                item.itemId = id.isEmpty() ? null : parseInt(row, id);
+                item.itemName = field(pending, 2);
+                item.itemPrice = price(row, field(pending, 3));
+                item.soldout = Boolean.parseBoolean(field(pending, 4));
+                item.options = new ArrayList<>();
+                item.notes = new ArrayList<>();
+
+                while ((pending = records.next()) != null) {
+                    row++;
+                    String kind = field(pending, 0).toLowerCase();
+                    if (kind.equals("option")) {
+                        item.options.add(new MenuItemOptionRequest(field(pending, 2), price(row, field(pending, 3))));
+                    } else if (kind.equals("note")) {
+                        item.notes.add(new MenuItemNoteRequest(field(pending, 2), price(row, field(pending, 3))));
+                    } else if (kind.equals("item")) {
+                        break;
+                    } else {
+                        throw invalid(row, "unknown kind '" + kind + "'");
+                    }
+                }
+                return item;
+            }
+        };
+    }
+
+    public static void writeHeader(Writer out) throws IOException {
+        out.write(HEADER);
+        out.write('\n');
+    }
+
+    public static void write(Writer out, MenuImportItem item) throws IOException {
+        writeRow(out, "item", item.itemId == null ? "" : item.itemId.toString(), item.itemName,
+                item.itemPrice, String.valueOf(Boolean.TRUE.equals(item.soldout)));
+        if (item.options != null) {
+            for (MenuItemOptionRequest o : item.options) {
+                writeRow(out, "option", "", o.optionName, o.optionPrice, "");
+            }
+        }
+        if (item.notes != null) {
+            for (MenuItemNoteRequest n : item.notes) {
+                writeRow(out, "note", "", n.noteName, n.notePrice, "");
+            }
+        }
+    }
+
+    private static void writeRow(Writer out, String kind, String itemId, String name, BigDecimal price,
+                                 String soldout) throws IOException {
+        out.write(kind);
+        out.write(',');
+        out.write(itemId);
+        out.write(',');
+        out.write(quote(name));
+        out.write(',');
+        out.write(price == null ? "" : price.toPlainString());
+        out.write(',');
+        out.write(soldout);
+        out.write('\n');
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String field(List<String> record, int index) {
+        return index < record.size() ? record.get(index).trim() : "";
+    }
+
+    private static BigDecimal price(int row, String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw invalid(row, "invalid price '" + value + "'");
+        }
+    }
+
+    private static Integer parseInt(int row, String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw invalid(row, "invalid item_id '" + value + "'");
+        }
+    }
+
+    private static ResponseStatusException invalid(int row, String problem) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV row " + row + ": " + problem);
+    }
+
+    /** Minimal RFC 4180 record reader: quoted fields, doubled quotes, CRLF or LF line ends. */
+    private static final class RecordReader {
+        private final Reader in;
+        private int peeked = -2;
+
+        RecordReader(Reader in) {
+            this.in = in;
+        }
+
+        /** The next record's fields, or null at end of input. Blank lines are skipped. */
+        List<String> next() {
+            int c = read();
+            while (c == '\r' || c == '\n') {
+                c = read();
+            }
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV: unterminated quoted field");
+                    } else if (c == '"') {
+                        int n = read();
+                        if (n == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = n;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        int n = read();
+                        if (n != '\n') {
+                            peeked = n;
+                        }
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() {
+            if (peeked != -2) {
+                int c = peeked;
+                peeked = -2;
+                return c;
+            }
+            try {
+                return in.read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
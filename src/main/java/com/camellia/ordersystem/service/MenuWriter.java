@@ -0,0 +1,351 @@
+package com.camellia.ordersystem.service;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.camellia.ordersystem.catalog.MenuCatalog;
+import com.camellia.ordersystem.catalog.SoldOutRegistry;
+import com.camellia.ordersystem.dto.MenuImportItem;
+import com.camellia.ordersystem.dto.MenuImportResult;
+import com.camellia.ordersystem.dto.MenuItemNoteRequest;
+import com.camellia.ordersystem.dto.MenuItemOptionRequest;
+import com.camellia.ordersystem.dto.MenuItemRequest;
+import com.camellia.ordersystem.entity.MenuItemEntity;
+import com.camellia.ordersystem.entity.MenuItemNoteEntity;
+import com.camellia.ordersystem.entity.MenuItemOptionEntity;
+import com.camellia.ordersystem.feed.MenuFeed;
+import com.camellia.ordersystem.repo.MenuItemRepository;
+
+/**
+ * Write path for menu items.
+ *
+ * Options and notes are reconciled by name rather than cleared and rebuilt: rows
+ * whose name is kept are updated in place (and only if their price changed), new
+ * names are inserted and missing names deleted. Unchanged rows are not written, and
+ * menu note ids captured on orders stay valid across edits.
+ */
+@Component
+public class MenuWriter {
+
+    private final MenuItemRepository menuRepo;
+    private final MenuCatalog menuCatalog;
+    private final SoldOutRegistry soldOut;
+    private final MenuFeed menuFeed;
+
+    public MenuWriter(MenuItemRepository menuRepo, MenuCatalog menuCatalog, SoldOutRegistry soldOut,
+                      MenuFeed menuFeed) {
+        this.menuRepo = menuRepo;
+        this.menuCatalog = menuCatalog;
+        this.soldOut = soldOut;
+        this.menuFeed = menuFeed;
+    }
+
+    /**
+     * Mark an item sold out or available again. An item on the menu changes in memory at
+     * once and is pushed to menu screens; either way the value is written to the
+     * database in the background by {@link SoldOutWriter}. Returns false, changing
+     * nothing, if there is no such item.
+     */
+    public boolean setSoldout(Integer itemId, boolean soldout) {
+        if (!soldOut.contains(itemId) && !menuRepo.existsById(itemId)) {
+            return false;
+        }
+        toggle(itemId, soldout);
+        return true;
+    }
+
+    private void toggle(Integer itemId, boolean soldout) {
+        if (soldOut.set(itemId, soldout)) {
+            menuFeed.soldoutChanged(itemId, soldout);
+        } else {
+            // Unchanged on the menu (queues nothing), or retired
+            soldOut.queue(itemId, soldout);
+        }
+    }
+
+    /**
+     * What an edit changed. A sold-out change alone goes through the registry and needs
+     * no catalog reload; any other change does.
+     */
+    public enum Change {
+        NONE, SOLDOUT, MENU;
+
+        public boolean reloadsMenu() {
+            return this == MENU;
+        }
+
+        private static Change of(boolean menu, boolean soldout) {
+            return menu ? MENU : soldout ? SOLDOUT : NONE;
+        }
+    }
+
+    /**
+     * Make a managed (or new) item match the request (full replace, as PUT). A null
+     * option or note list means no options or notes.
+     */
+    public Change apply(MenuItemEntity item, MenuItemRequest request) {
+        loadSoldout(item);
+        boolean menu = setName(item, request.itemName);
+        menu |= setPrice(item, request.itemPrice);
+        menu |= reconcileOptions(item, request.options != null ? request.options : List.of());
+        menu |= reconcileNotes(item, request.notes != null ? request.notes : List.of());
+        return Change.of(menu, setSoldout(item, request.soldout != null ? request.soldout : false));
+    }
+
+    /**
+     * Apply only the fields present in the request (PATCH): null fields, and a null
+     * option or note list, leave the item's current values alone; an empty list
+     * removes all of them.
+     */
+    public Change patch(MenuItemEntity item, MenuItemRequest request) {
+        loadSoldout(item);
+        boolean menu = false;
+        if (request.itemName != null) {
+            menu |= setName(item, request.itemName);
+        }
+        if (request.itemPrice != null) {
+            menu |= setPrice(item, request.itemPrice);
+        }
+        if (request.options != null) {
+            menu |= reconcileOptions(item, request.options);
+        }
+        if (request.notes != null) {
+            menu |= reconcileNotes(item, request.notes);
+        }
+        return Change.of(menu, request.soldout != null && setSoldout(item, request.soldout));
+    }
+
+    private static boolean setName(MenuItemEntity item, String itemName) {
+        if (Objects.equals(item.getItemName(), itemName)) {
+            return false;
+        }
+        item.setItemName(itemName);
+        return true;
+    }
+
+    private static boolean setPrice(MenuItemEntity item, BigDecimal itemPrice) {
+        if (samePrice(item.getItemPrice(), itemPrice)) {
+            return false;
+        }
+        item.setItemPrice(itemPrice);
+        return true;
+    }
+
+    /**
+     * Replace the loaded sold-out value with the live one for an item on the menu, or
+     * with the queued one for a retired item; either may not have been written yet. The
+     * entity never writes this column, so this only affects comparisons and responses.
+     */
+    private void loadSoldout(MenuItemEntity item) {
+        Integer itemId = item.getItemId();
+        if (itemId == null) {
+            return;
+        }
+        if (soldOut.contains(itemId)) {
+            item.setSoldout(soldOut.isSoldOut(itemId));
+        } else if (soldOut.queued(itemId) != null) {
+            item.setSoldout(soldOut.queued(itemId));
+        }
+    }
+
+    /**
+     * The soldout column is not part of entity updates (see MenuItemEntity). New items
+     * insert it; existing ones go through the registry once the edit commits.
+     */
+    private boolean setSoldout(MenuItemEntity item, Boolean soldout) {
+        if (soldout.equals(item.getSoldout())) {
+            return false;
+        }
+        item.setSoldout(soldout);
+        Integer itemId = item.getItemId();
+        if (itemId != null) {
+            afterCommit(() -> toggle(itemId, soldout));
+        }
+        return true;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static boolean reconcileOptions(MenuItemEntity item, List<MenuItemOptionRequest> wanted) {
+        return reconcile(item.getOptions(), wanted,
+                MenuItemOptionEntity::getOptionName, r -> r.optionName,
+                (o, r) -> {
+                    if (samePrice(o.getOptionPrice(), r.optionPrice)) {
+                        return false;
+                    }
+                    o.setOptionPrice(r.optionPrice);
+                    return true;
+                },
+                r -> {
+                    MenuItemOptionEntity o = new MenuItemOptionEntity();
+                    o.setMenuItem(item);
+                    o.setOptionName(r.optionName);
+                    o.setOptionPrice(r.optionPrice);
+                    return o;
+                });
+    }
+
+    private static boolean reconcileNotes(MenuItemEntity item, List<MenuItemNoteRequest> wanted) {
+        return reconcile(item.getNotes(), wanted,
+                MenuItemNoteEntity::getNoteName, r -> r.noteName,
+                (n, r) -> {
+                    if (samePrice(n.getNotePrice(), r.notePrice)) {
+                        return false;
+                    }
+                    n.setNotePrice(r.notePrice);
+                    return true;
+                },
+                r -> {
+                    MenuItemNoteEntity n = new MenuItemNoteEntity();
+                    n.setMenuItem(item);
+                    n.setNoteName(r.noteName);
+                    n.setNotePrice(r.notePrice);
+                    return n;
+                });
+    }
+
+    /**
+     * Upsert a stream of items in one transaction. The current menu is loaded once
+     * (two statements); items are matched by id, then by name. All writes are flushed
+     * together at commit, as JDBC batches, and the menu catalog is refreshed once
+     * after commit (not at all if only sold-out flags changed). An invalid item
+     * rejects the whole import.
+     */
+    @Transactional
+    public MenuImportResult importItems(Iterator<? extends MenuImportItem> items) {
+        List<MenuItemEntity> current = menuRepo.findAllWithOptions();
+        menuRepo.findAllWithNotes();
+        Map<Integer, MenuItemEntity> byId = new HashMap<>();
+        Map<String, MenuItemEntity> byName = new HashMap<>();
+        for (MenuItemEntity e : current) {
+            byId.put(e.getItemId(), e);
+            byName.putIfAbsent(e.getItemName(), e);
+        }
+
+        int created = 0, updated = 0, unchanged = 0, line = 0;
+        boolean reload = false;
+        while (items.hasNext()) {
+            MenuImportItem in = items.next();
+            line++;
+            validate(line, in);
+
+            MenuItemEntity item = in.itemId != null ? byId.get(in.itemId) : null;
+            if (item == null) {
+                item = byName.get(in.itemName);
+            }
+            if (item == null) {
+                item = new MenuItemEntity();
+                apply(item, in);
+                menuRepo.save(item);
+                byName.putIfAbsent(item.getItemName(), item);
+                created++;
+                continue;
+            }
+            String oldName = item.getItemName();
+            Change change = apply(item, in);
+            reload |= change.reloadsMenu();
+            if (change != Change.NONE) {
+                updated++;
+            } else {
+                unchanged++;
+            }
+            if (!oldName.equals(item.getItemName())) {
+                // Renamed (matched by id): later lines find it by its new name only
+                byName.remove(oldName, item);
+                byName.putIfAbsent(item.getItemName(), item);
+            }
+        }
+
+        if (created > 0 || reload) {
+            menuCatalog.refreshAfterCommit();
+        }
+        return new MenuImportResult(created, updated, unchanged);
+    }
+
+    private static void validate(int line, MenuImportItem in) {
+        String problem = null;
+        if (in.itemName == null || in.itemName.isBlank()) {
+            problem = "itemName is required";
+        } else if (in.itemPrice == null) {
+            problem = "itemPrice is required";
+        } else if (in.options != null && in.options.stream().anyMatch(o -> o.optionName == null || o.optionPrice == null)) {
+            problem = "every option needs optionName and optionPrice";
+        } else if (in.notes != null && in.notes.stream().anyMatch(n -> n.noteName == null || n.notePrice == null)) {
+            problem = "every note needs noteName and notePrice";
+        }
+        if (problem != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Item " + line + ": " + problem);
+        }
+    }
+
+    private static boolean samePrice(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    /**
+     * Reconcile a child collection with the wanted list by name: update kept rows,
+     * add new ones, remove the rest (orphan removal deletes them). A name listed twice
+     * counts once, first entry wins, as in pricing. Returns whether anything changed.
+     */
+    private static <E, R> boolean reconcile(List<E> current, List<R> wanted,
+                                            Function<E, String> currentName, Function<R, String> wantedName,
+                                            BiPredicate<E, R> update, Function<R, E> create) {
+        Map<String, E> byName = new LinkedHashMap<>();
+        Set<E> stale = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (E e : current) {
+            if (byName.putIfAbsent(currentName.apply(e), e) != null) {
+                stale.add(e); // duplicate name: only the first one was ever used for pricing
+            }
+        }
+
+        boolean changed = false;
+        Set<String> seen = new HashSet<>();
+        for (R r : wanted) {
+            if (!seen.add(wantedName.apply(r))) {
+                continue;
+            }
+            E existing = byName.remove(wantedName.apply(r));
+            if (existing != null) {
+                changed |= update.test(existing, r);
+            } else {
+                current.add(create.apply(r));
+                changed = true;
+            }
+        }
+        stale.addAll(byName.values());
+        if (!stale.isEmpty()) {
+            current.removeIf(stale::contains);
+            changed = true;
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,160 @@
+package com.camellia.ordersystem.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Admission control for order submissions, checked before any pricing or SQL.
+ *
+ * Each table has a token bucket (burst table-burst, refilled at table-rate-per-minute)
+ * and all tables share one more (global-burst, global-rate-per-second). At most
+ * max-in-flight submissions run at once. A submission that fails any check is refused
+ * at once with 429 and a Retry-After estimate; nothing waits, so a flooding client
+ * never holds a request thread or a DB connection.
+ *
+ * Buckets live in memory per instance. Idle, full table buckets are dropped when
+ * there are more than max-tables of them.
+ */
+@Component
+public class OrderAdmission {
+
+    /** A refused submission: 429 with Retry-After in whole seconds. reason is a fixed metrics code. */
+    public static final class RejectedException extends ResponseStatusException {
+        private final String reason;
+        private final long retryAfterSeconds;
+
+        RejectedException(String reason, String message, long retryAfterSeconds) {
+            super(HttpStatus.TOO_MANY_REQUESTS, message);
+            this.reason = reason;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public String reason() {
+            return reason;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            return headers;
+        }
+    }
+
+    /** Held while an admitted submission runs; closing it frees the in-flight slot. */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final Permit NO_OP = () -> {};
+
+    private final boolean enabled;
+    private final double tableBurst;
+    private final double tableTokensPerNano;
+    private final int maxTables;
+    private final TokenBucket global;
+    private final Semaphore inFlight;
+    private final Map<String, TokenBucket> tables = new ConcurrentHashMap<>();
+
+    public OrderAdmission(@Value("${orders.admission.enabled:true}") boolean enabled,
+                          @Value("${orders.admission.table-burst:5}") int tableBurst,
+                          @Value("${orders.admission.table-rate-per-minute:6}") double tableRatePerMinute,
+                          @Value("${orders.admission.global-burst:200}") int globalBurst,
+                          @Value("${orders.admission.global-rate-per-second:100}") double globalRatePerSecond,
+                          @Value("${orders.admission.max-in-flight:32}") int maxInFlight,
+                          @Value("${orders.admission.max-tables:10000}") int maxTables) {
+        this.enabled = enabled;
+        this.tableBurst = Math.max(1, tableBurst);
+        this.tableTokensPerNano = tableRatePerMinute / TimeUnit.MINUTES.toNanos(1);
+        this.maxTables = maxTables;
+        this.global = new TokenBucket(Math.max(1, globalBurst), globalRatePerSecond / TimeUnit.SECONDS.toNanos(1));
+        this.inFlight = new Semaphore(Math.max(1, maxInFlight));
+    }
+
+    /**
+     * Admit one submission for the table or throw RejectedException. The returned
+     * permit must be closed when the submission finishes.
+     */
+    public Permit admit(String tableId) {
+        if (!enabled) {
+            return NO_OP;
+        }
+        long now = System.nanoTime();
+        TokenBucket table = tables.computeIfAbsent(String.valueOf(tableId),
+                k -> new TokenBucket(tableBurst, tableTokensPerNano));
+        if (tables.size() > maxTables) {
+            tables.values().removeIf(b -> b.isFull(now));
+        }
+
+        long wait = table.tryTake(now);
+        if (wait > 0) {
+            throw new RejectedException("table_rate_limited",
+                    "Too many orders from table " + tableId + "; try again shortly", seconds(wait));
+        }
+        wait = global.tryTake(now);
+        if (wait > 0) {
+            table.refund();
+            throw new RejectedException("rate_limited", "Too many orders right now; try again shortly", seconds(wait));
+        }
+        if (!inFlight.tryAcquire()) {
+            table.refund();
+            global.refund();
+            throw new RejectedException("overloaded", "Too many orders right now; try again shortly", 1);
+        }
+        return inFlight::release;
+    }
+
+    private static long seconds(long nanos) {
+        return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;      // guarded by this
+        private long refilledAt;    // guarded by this
+
+        TokenBucket(double capacity, double tokensPerNano) {
+            this.capacity = capacity;
+            this.tokensPerNano = tokensPerNano;
+            this.tokens = capacity;
+            this.refilledAt = System.nanoTime();
+        }
+
+        /** Take one token; returns 0 on success, otherwise roughly how long until one is available. */
+        synchronized long tryTake(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return tokensPerNano > 0 ? (long) Math.ceil((1 - tokens) / tokensPerNano) : Long.MAX_VALUE / 2;
+        }
+
+        /** Give back a token taken for a submission that a later check refused. */
+        synchronized void refund() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            if (now - refilledAt > 0) {
+                tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+                refilledAt = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.camellia.ordersystem.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.camellia.ordersystem.entity.OrderStatus;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Moves finished orders out of the live tables.
+ *
+ * Every interval-minutes, SERVED and CANCELLED orders created more than after-days ago
+ * are copied with their lines and notes into orders_archive, order_item_archive and
+ * order_item_note_archive, then deleted from the live tables. Each batch of batch-size
+ * orders is one transaction of seven set-based statements; rows are locked with SKIP
+ * LOCKED so a batch never waits on rows another transaction holds.
+ *
+ * Terminal orders never change status again once their tab (if any) is closed, so
+ * archiving cannot race a transition or a new round.
+ * The live read paths (all_orders, the order feed, note reports, menu deletion checks)
+ * only ever see the recent working set; archived orders are read through
+ * GET /api/all_orders/archive.
+ */
+@Component
+public class OrderArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiver.class);
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final Duration age;
+    private final int batchSize;
+    private final long intervalMillis;
+    private final Thread worker;
+
+    public OrderArchiver(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager txManager,
+                         @Value("${orders.archive.enabled:true}") boolean enabled,
+                         @Value("${orders.archive.after-days:30}") long afterDays,
+                         @Value("${orders.archive.batch-size:500}") int batchSize,
+                         @Value("${orders.archive.interval-minutes:15}") long intervalMinutes) {
+        this.jdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.tx = new TransactionTemplate(txManager);
+        this.enabled = enabled;
+        this.age = Duration.ofDays(Math.max(0, afterDays));
+        this.batchSize = Math.max(1, batchSize);
+        this.intervalMillis = Duration.ofMinutes(Math.max(1, intervalMinutes)).toMillis();
+        this.worker = new Thread(this::archiveLoop, "order-archiver");
+        this.worker.setDaemon(true);
+        if (enabled) {
+            this.worker.start();
+        }
+    }
+
+    /** Archive every finished order older than the configured age. Returns how many were moved. */
+    public int archiveOldOrders() {
+        return archiveBefore(LocalDateTime.now().minus(age));
+    }
+
+    /** Archive every finished order created before cutoff, batch by batch. */
+    public int archiveBefore(LocalDateTime cutoff) {
+        int total = 0;
+        while (true) {
+            Integer moved = tx.execute(status -> archiveBatch(cutoff));
+            total += moved;
+            if (moved < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.interrupt();
+    }
+
+    private void archiveLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                break;
+            }
+            try {
+                int moved = archiveOldOrders();
+                if (moved > 0) {
+                    logger.info("Archived {} orders older than {} days", moved, age.toDays());
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Order archival failed; retrying next interval", e);
+            }
+        }
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Integer> ids = jdbc.queryForList("""
+                select order_id from orders
+                where order_status in (:statuses) and created_at < :cutoff and tab_open = false
+                order by order_id
+                limit :limit
+                for update skip locked
+                """,
+                Map.of("statuses", OrderStatus.terminalNames(), "cutoff", Timestamp.valueOf(cutoff), "limit", batchSize),
+                Integer.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Object> params = Map.of("ids", ids, "now", Timestamp.valueOf(LocalDateTime.now()));
+        jdbc.update("""
+                insert into orders_archive (order_id, table_id, total_price, order_status, created_at, archived_at)
+                select order_id, table_id, total_price, order_status, created_at, :now
+                from orders where order_id in (:ids)
+                """, params);
+        // The item name is captured so archived lines read the same after the menu item is deleted
+        jdbc.update("""
+                insert into order_item_archive (order_item_id, order_id, menu_item_id, item_name, quantity,
+                                                customer_name, chosen_option, notes_text, unit_price)
+                select oi.order_item_id, oi.order_id, oi.menu_item_id, m.item_name, oi.quantity,
+                       oi.customer_name, oi.chosen_option, oi.notes_text, oi.unit_price
+                from order_item oi left join menu_item m on m.item_id = oi.menu_item_id
+                where oi.order_id in (:ids)
+                """, params);
+        jdbc.update("""
+                insert into order_item_note_archive (order_item_note_id, order_item_id, note_id, note_name, note_price)
+                select n.order_item_note_id, n.order_item_id, n.note_id, n.note_name, n.note_price
+                from order_item_note n join order_item oi on oi.order_item_id = n.order_item_id
+                where oi.order_id in (:ids)
+                """, params);
+
+        jdbc.update("""
+                delete from order_item_note
+                where order_item_id in (select order_item_id from order_item where order_id in (:ids))
+                """, params);
+        jdbc.update("delete from order_item where order_id in (:ids)", params);
+        jdbc.update("delete from orders where order_id in (:ids)", params);
+        return ids.size();
+    }
+}
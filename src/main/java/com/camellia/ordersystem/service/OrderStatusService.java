@@ -0,0 +1,44 @@
+package com.camellia.ordersystem.service;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.camellia.ordersystem.entity.OrderStatus;
+import com.camellia.ordersystem.repo.OrderRepository;
+
+/**
+ * Applies order status transitions as a single conditional UPDATE, so concurrent
+ * screens cannot overwrite each other: exactly one of two racing transitions from
+ * the same status wins. The order is only read when the update matched nothing,
+ * to tell "already there" (idempotent success) from "not found" and "not allowed".
+ */
+@Service
+public class OrderStatusService {
+
+    private final OrderRepository orderRepo;
+
+    public OrderStatusService(OrderRepository orderRepo) {
+        this.orderRepo = orderRepo;
+    }
+
+    /** Outcome of a transition; changed is false when the order was already in the target status. */
+    public record Transition(Integer orderId, OrderStatus status, boolean changed) {}
+
+    public Transition transition(Integer orderId, OrderStatus target) {
+        List<String> from = target.allowedFrom().stream().map(Enum::name).toList();
+        if (!from.isEmpty() && orderRepo.transitionStatus(orderId, from, target.name()) == 1) {
+            return new Transition(orderId, target, true);
+        }
+
+        String current = orderRepo.findStatusById(orderId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found: " + orderId));
+        if (target.name().equals(current)) {
+            return new Transition(orderId, target, false);
+        }
+        throw new ResponseStatusException(HttpStatus.CONFLICT,
+                "Order " + orderId + " cannot move from " + current + " to " + target);
+    }
+}
@@ -0,0 +1,189 @@
+package com.camellia.ordersystem.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.camellia.ordersystem.entity.OrderEntity;
+import com.camellia.ordersystem.repo.OrderRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write path for new orders.
+ *
+ * By default each order is saved in its own transaction; its items go out as one
+ * JDBC batch. With group commit enabled, orders from concurrent requests are queued
+ * and a single writer thread persists up to max-batch of them per transaction,
+ * waiting at most max-wait-ms for a batch to fill. Callers block until their batch
+ * commits. If the queue is full the order is written inline instead.
+ *
+ * A failing batch fails every order in it; the rolled-back orders are not retried.
+ * On shutdown, orders still queued are failed (503) rather than left waiting, and
+ * callers never wait longer than RESULT_TIMEOUT_SECONDS for their batch.
+ */
+@Component
+public class OrderWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderWriter.class);
+
+    static final long RESULT_TIMEOUT_SECONDS = 30;
+    private static final long SHUTDOWN_WAIT_MS = 5000;
+
+    private final OrderRepository orderRepo;
+    private final TransactionTemplate tx;
+    private final boolean groupCommit;
+    private final int maxBatch;
+    private final long maxWaitNanos;
+
+    private final BlockingQueue<Pending> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public OrderWriter(OrderRepository orderRepo,
+                       PlatformTransactionManager txManager,
+                       @Value("${orders.write.group-commit.enabled:false}") boolean groupCommit,
+                       @Value("${orders.write.group-commit.max-batch:32}") int maxBatch,
+                       @Value("${orders.write.group-commit.max-wait-ms:5}") long maxWaitMs) {
+        this.orderRepo = orderRepo;
+        this.tx = new TransactionTemplate(txManager);
+        this.groupCommit = groupCommit;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+
+        if (groupCommit) {
+            this.queue = new ArrayBlockingQueue<>(this.maxBatch * 16);
+            this.writer = new Thread(this::writeLoop, "order-writer");
+            this.writer.setDaemon(true);
+            this.writer.start();
+        } else {
+            this.queue = null;
+            this.writer = null;
+        }
+    }
+
+    /**
+     * Persist a new order with its items and return the saved entity.
+     */
+    public OrderEntity save(OrderEntity order) {
+        if (!groupCommit) {
+            return orderRepo.save(order);
+        }
+        if (!running) {
+            throw shuttingDown();
+        }
+        Pending pending = new Pending(order);
+        if (!queue.offer(pending)) {
+            return orderRepo.save(order);
+        }
+        // Shutdown may have drained the queue between the check and the offer
+        if (!running && queue.remove(pending)) {
+            throw shuttingDown();
+        }
+        try {
+            return pending.result.get(RESULT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while saving order", e);
+        } catch (TimeoutException e) {
+            // The batch may still commit; the caller cannot tell, so this is a 500, not a retry hint
+            throw new IllegalStateException("Timed out waiting for the order to be saved", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Failed to save order", e.getCause());
+        }
+    }
+
+    /**
+     * Stop the writer: the batch being written is failed by the interrupt, then every
+     * order still queued is failed too, so no caller is left waiting.
+     */
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        writer.interrupt();
+        try {
+            writer.join(SHUTDOWN_WAIT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        ResponseStatusException e = shuttingDown();
+        left.forEach(p -> p.result.completeExceptionally(e));
+    }
+
+    private static ResponseStatusException shuttingDown() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Order writer is shutting down");
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatch) {
+                    Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(p -> p.result.completeExceptionally(e));
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<Pending> batch) {
+        try {
+            List<OrderEntity> saved = tx.execute(status -> {
+                List<OrderEntity> out = new ArrayList<>(batch.size());
+                for (Pending p : batch) {
+                    out.add(orderRepo.save(p.order));
+                }
+                return out;
+            });
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(saved.get(i));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Group commit of {} orders failed", batch.size(), e);
+            batch.forEach(p -> p.result.completeExceptionally(e));
+        }
+    }
+
+    private static final class Pending {
+        final OrderEntity order;
+        final CompletableFuture<OrderEntity> result = new CompletableFuture<>();
+
+        Pending(OrderEntity order) {
+            this.order = order;
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.camellia.ordersystem.service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.camellia.ordersystem.dto.OrderResponseDto;
+import com.camellia.ordersystem.entity.OrderStatus;
+import com.camellia.ordersystem.pricing.Money;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Incrementally maintained sales rollups: item_sales_hourly (per menu item per hour)
+ * and table_sales_daily (per table per day), both bucketed by order creation time.
+ *
+ * Request threads only add to in-memory deltas; a background thread writes them every
+ * flush-ms in one transaction, as one batched "insert ... on conflict do nothing" plus
+ * one batched "update ... set x = x + ?" per table. Many orders for the same item in
+ * the same hour therefore cost one row update per flush instead of one per order, and
+ * createOrder never waits on a contended rollup row.
+ *
+ * Created orders are recorded from the response payload. READY adds the order's
+ * created -> READY time to its table's ticket totals; CANCELLED takes the order's
+ * lines and total back out. Both look the order up once, on the flush thread. A
+ * ticket counted at READY stays counted if the order is cancelled afterwards: the
+ * kitchen did make it, and the READY time is not stored to take back.
+ *
+ * Deltas that fail to write are kept and retried with the next flush. Deltas still in
+ * memory when the process dies are lost, so the rollups can undercount after a crash.
+ */
+@Component
+public class SalesRollup {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollup.class);
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final long flushMillis;
+    private final Thread flusher;
+
+    private final Object lock = new Object();
+    private Map<ItemHour, Delta> items = new HashMap<>();
+    private Map<TableDay, Delta> tables = new HashMap<>();
+    private List<StatusEvent> events = new ArrayList<>();
+
+    public SalesRollup(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager txManager,
+                       @Value("${orders.analytics.enabled:true}") boolean enabled,
+                       @Value("${orders.analytics.flush-ms:1000}") long flushMillis) {
+        this.jdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.tx = new TransactionTemplate(txManager);
+        this.enabled = enabled;
+        this.flushMillis = Math.max(10, flushMillis);
+        this.flusher = new Thread(this::flushLoop, "sales-rollup");
+        this.flusher.setDaemon(true);
+        if (enabled) {
+            this.flusher.start();
+        }
+    }
+
+    /** A committed new order, as returned to the client and published on the feed. */
+    public void orderCreated(OrderResponseDto order) {
+        record(order, 1, order.totalPrice);
+    }
+
+    /**
+     * A round appended to an open tab: order carries the tab (its createdAt and tableId)
+     * and only the new lines. The round is counted in the tab's hour and day, so
+     * cancelling the tab later takes back exactly what was added.
+     */
+    public void roundAppended(OrderResponseDto order) {
+        Money revenue = Money.ZERO;
+        for (OrderResponseDto.OrderItemResponseDto line : order.orderItems) {
+            revenue = revenue.plus(line.unitPrice.times(line.quantity));
+        }
+        record(order, 0, revenue);
+    }
+
+    private void record(OrderResponseDto order, int orders, Money revenue) {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime hour = order.createdAt.truncatedTo(ChronoUnit.HOURS);
+        TableDay day = new TableDay(order.tableId, order.createdAt.toLocalDate());
+        synchronized (lock) {
+            for (OrderResponseDto.OrderItemResponseDto line : order.orderItems) {
+                items.computeIfAbsent(new ItemHour(line.menuItemId, hour), k -> new Delta())
+                        .add(line.quantity, line.unitPrice.times(line.quantity).toBigDecimal());
+            }
+            tables.computeIfAbsent(day, k -> new Delta()).add(orders, revenue.toBigDecimal());
+        }
+    }
+
+    /** A status transition that actually happened (changed = true). */
+    public void statusChanged(Integer orderId, OrderStatus status) {
+        if (!enabled || (status != OrderStatus.READY && status != OrderStatus.CANCELLED)) {
+            return;
+        }
+        StatusEvent event = new StatusEvent(orderId, status, LocalDateTime.now());
+        synchronized (lock) {
+            events.add(event);
+        }
+    }
+
+    /**
+     * Write everything recorded so far. Called by the background thread; public so
+     * tests and shutdown can force it.
+     */
+    public void flush() {
+        Map<ItemHour, Delta> itemBatch;
+        Map<TableDay, Delta> tableBatch;
+        List<StatusEvent> eventBatch;
+        synchronized (lock) {
+            if (items.isEmpty() && tables.isEmpty() && events.isEmpty()) {
+                return;
+            }
+            itemBatch = items;
+            tableBatch = tables;
+            eventBatch = events;
+            items = new HashMap<>();
+            tables = new HashMap<>();
+            events = new ArrayList<>();
+        }
+
+        try {
+            if (!eventBatch.isEmpty()) {
+                resolve(eventBatch, itemBatch, tableBatch);
+            }
+        } catch (RuntimeException e) {
+            // Nothing folded in yet from the failed lookups; retry them next time
+            logger.warn("Failed to look up {} orders for sales rollups", eventBatch.size(), e);
+            requeue(itemBatch, tableBatch, eventBatch);
+            return;
+        }
+
+        try {
+            tx.executeWithoutResult(status -> {
+                writeItems(itemBatch);
+                writeTables(tableBatch);
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Failed to write sales rollups ({} item-hours, {} table-days)",
+                    itemBatch.size(), tableBatch.size(), e);
+            requeue(itemBatch, tableBatch, List.of());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        flusher.interrupt();
+        flush();
+    }
+
+    private void flushLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(flushMillis);
+            } catch (InterruptedException e) {
+                break;
+            }
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                logger.warn("Sales rollup flush failed", e);
+            }
+        }
+    }
+
+    /** Turn READY and CANCELLED events into deltas, reading each order (and cancelled lines) once. */
+    private void resolve(List<StatusEvent> eventBatch, Map<ItemHour, Delta> itemBatch, Map<TableDay, Delta> tableBatch) {
+        Map<String, Object> ids = Map.of("ids", eventBatch.stream().map(StatusEvent::orderId).distinct().toList());
+        Map<Integer, OrderHeader> headers = new HashMap<>();
+        jdbc.query("select order_id, table_id, total_price, created_at from orders where order_id in (:ids)", ids,
+                rs -> {
+                    headers.put(rs.getInt(1), new OrderHeader(rs.getString(2), rs.getBigDecimal(3),
+                            rs.getTimestamp(4).toLocalDateTime()));
+                });
+
+        List<Integer> cancelled = eventBatch.stream()
+                .filter(e -> e.status() == OrderStatus.CANCELLED && headers.containsKey(e.orderId()))
+                .map(StatusEvent::orderId).distinct().toList();
+        if (!cancelled.isEmpty()) {
+            jdbc.query("select order_id, menu_item_id, unit_price, quantity from order_item where order_id in (:ids)",
+                    Map.of("ids", cancelled),
+                    rs -> {
+                        Integer menuItemId = rs.getObject(2, Integer.class);
+                        if (menuItemId == null) {
+                            return; // legacy line without a menu item: never counted, as in the 008 backfill
+                        }
+                        OrderHeader order = headers.get(rs.getInt(1));
+                        BigDecimal unitPrice = rs.getBigDecimal(3);
+                        int quantity = rs.getInt(4);
+                        itemBatch.computeIfAbsent(new ItemHour(menuItemId, order.createdAt().truncatedTo(ChronoUnit.HOURS)),
+                                k -> new Delta()).add(-quantity,
+                                unitPrice == null ? BigDecimal.ZERO : unitPrice.multiply(BigDecimal.valueOf(-quantity)));
+                    });
+        }
+
+        for (StatusEvent event : eventBatch) {
+            OrderHeader order = headers.get(event.orderId());
+            if (order == null) {
+                continue; // deleted or archived in the meantime
+            }
+            Delta delta = tableBatch.computeIfAbsent(new TableDay(order.tableId(), order.createdAt().toLocalDate()),
+                    k -> new Delta());
+            if (event.status() == OrderStatus.CANCELLED) {
+                delta.cancelled++;
+                delta.revenue = delta.revenue.subtract(order.totalPrice());
+            } else {
+                delta.tickets++;
+                delta.ticketSeconds += Math.max(0, Duration.between(order.createdAt(), event.at()).toSeconds());
+            }
+        }
+    }
+
+    private void writeItems(Map<ItemHour, Delta> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // Fixed key order so concurrent writers (other instances) cannot deadlock
+        List<Map.Entry<ItemHour, Delta>> rows = batch.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.comparing(ItemHour::menuItemId).thenComparing(ItemHour::hourStart)))
+                .toList();
+        JdbcTemplate ops = jdbc.getJdbcTemplate();
+        ops.batchUpdate("""
+                insert into item_sales_hourly (menu_item_id, hour_start, quantity, revenue)
+                values (?, ?, 0, 0) on conflict do nothing
+                """, rows, rows.size(), (ps, row) -> {
+            ps.setInt(1, row.getKey().menuItemId());
+            ps.setTimestamp(2, Timestamp.valueOf(row.getKey().hourStart()));
+        });
+        ops.batchUpdate("""
+                update item_sales_hourly set quantity = quantity + ?, revenue = revenue + ?
+                where menu_item_id = ? and hour_start = ?
+                """, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.getValue().count);
+            ps.setBigDecimal(2, row.getValue().revenue);
+            ps.setInt(3, row.getKey().menuItemId());
+            ps.setTimestamp(4, Timestamp.valueOf(row.getKey().hourStart()));
+        });
+    }
+
+    private void writeTables(Map<TableDay, Delta> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<TableDay, Delta>> rows = batch.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.comparing(TableDay::tableId).thenComparing(TableDay::salesDate)))
+                .toList();
+        JdbcTemplate ops = jdbc.getJdbcTemplate();
+        ops.batchUpdate("""
+                insert into table_sales_daily
+                    (table_id, sales_date, order_count, cancelled_count, revenue, ticket_count, ticket_seconds)
+                values (?, ?, 0, 0, 0, 0, 0) on conflict do nothing
+                """, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.getKey().tableId());
+            ps.setObject(2, row.getKey().salesDate());
+        });
+        ops.batchUpdate("""
+                update table_sales_daily
+                set order_count = order_count + ?, cancelled_count = cancelled_count + ?, revenue = revenue + ?,
+                    ticket_count = ticket_count + ?, ticket_seconds = ticket_seconds + ?
+                where table_id = ? and sales_date = ?
+                """, rows, rows.size(), (ps, row) -> {
+            Delta d = row.getValue();
+            ps.setLong(1, d.count);
+            ps.setLong(2, d.cancelled);
+            ps.setBigDecimal(3, d.revenue);
+            ps.setLong(4, d.tickets);
+            ps.setLong(5, d.ticketSeconds);
+            ps.setString(6, row.getKey().tableId());
+            ps.setObject(7, row.getKey().salesDate());
+        });
+    }
+
+    private void requeue(Map<ItemHour, Delta> itemBatch, Map<TableDay, Delta> tableBatch, List<StatusEvent> eventBatch) {
+        synchronized (lock) {
+            itemBatch.forEach((k, d) -> items.computeIfAbsent(k, x -> new Delta()).merge(d));
+            tableBatch.forEach((k, d) -> tables.computeIfAbsent(k, x -> new Delta()).merge(d));
+            events.addAll(0, eventBatch);
+        }
+    }
+
+    private record ItemHour(Integer menuItemId, LocalDateTime hourStart) {}
+
+    private record TableDay(String tableId, LocalDate salesDate) {}
+
+    private record StatusEvent(Integer orderId, OrderStatus status, LocalDateTime at) {}
+
+    private record OrderHeader(String tableId, BigDecimal totalPrice, LocalDateTime createdAt) {}
+
+    /** Pending change to one rollup row; count is quantity for items and orders for tables. */
+    private static final class Delta {
+        long count;
+        long cancelled;
+        BigDecimal revenue = BigDecimal.ZERO;
+        long tickets;
+        long ticketSeconds;
+
+        void add(long count, BigDecimal revenue) {
+            this.count += count;
+            this.revenue = this.revenue.add(revenue);
+        }
+
+        void merge(Delta other) {
+            count += other.count;
+            cancelled += other.cancelled;
+            revenue = revenue.add(other.revenue);
+            tickets += other.tickets;
+            ticketSeconds += other.ticketSeconds;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.camellia.ordersystem.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Refuses to start a second instance against the same database.
+ *
+ * The menu catalog and the sold-out flags are cached per process and never re-read
+ * for items the process already has, so a second instance would serve stale menus and
+ * sold-out state (see database/migrations/README.md). On PostgreSQL, startup takes a
+ * session-level advisory lock on one connection held for the life of the process; if
+ * another instance holds it, startup fails. The lock goes away with the session, so a
+ * crashed instance never blocks its replacement. Other databases (H2 in tests and the
+ * load harness) are not guarded.
+ */
+@Component
+public class SingleInstanceGuard {
+
+    // Any fixed key; only this application takes it
+    static final long LOCK_KEY = 0x6f72646572730001L;
+
+    private static final Logger logger = LoggerFactory.getLogger(SingleInstanceGuard.class);
+
+    // Held for the life of the process while guarding, else null
+    private final Connection connection;
+
+    public SingleInstanceGuard(DataSource dataSource,
+                               @Value("${orders.single-instance.enabled:true}") boolean enabled) throws SQLException {
+        this.connection = enabled ? lock(dataSource) : null;
+    }
+
+    @PreDestroy
+    void release() {
+        if (connection == null) {
+            return;
+        }
+        // Unlock explicitly: closing only returns the connection to the pool, and the
+        // session (with its lock) lives on there
+        try (connection; PreparedStatement ps = connection.prepareStatement("select pg_advisory_unlock(?)")) {
+            ps.setLong(1, LOCK_KEY);
+            ps.execute();
+        } catch (SQLException e) {
+            logger.warn("Failed to release the single-instance lock", e);
+        }
+    }
+
+    private static Connection lock(DataSource dataSource) throws SQLException {
+        Connection c = dataSource.getConnection();
+        try {
+            String product = c.getMetaData().getDatabaseProductName();
+            if (!"PostgreSQL".equals(product)) {
+                logger.info("Single-instance guard skipped on {}", product);
+                c.close();
+                return null;
+            }
+            try (PreparedStatement ps = c.prepareStatement("select pg_try_advisory_lock(?)")) {
+                ps.setLong(1, LOCK_KEY);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next() || !rs.getBoolean(1)) {
+                        throw new IllegalStateException("Another order-system instance is running against this "
+                                + "database; only one may run at a time (orders.single-instance.enabled)");
+                    }
+                }
+            }
+            return c;
+        } catch (SQLException | RuntimeException e) {
+            c.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.camellia.ordersystem.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.camellia.ordersystem.catalog.SoldOutRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind for sold-out toggles: every flush-ms, the toggles the
+ * {@link SoldOutRegistry} has not written yet go to menu_item.soldout as one batched
+ * UPDATE in one transaction. Toggling never waits on the database.
+ *
+ * Toggles that fail to write stay queued and are retried with the next flush. Toggles
+ * still in memory when the process dies are lost, and the item comes back with its
+ * last written value.
+ */
+@Component
+public class SoldOutWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SoldOutWriter.class);
+
+    private final SoldOutRegistry soldOut;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final long flushMillis;
+    private final Thread flusher;
+    // Flushes run one at a time, so an older value can never be written over a newer one
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public SoldOutWriter(SoldOutRegistry soldOut,
+                         JdbcTemplate jdbc,
+                         PlatformTransactionManager txManager,
+                         @Value("${orders.soldout.flush-ms:500}") long flushMillis) {
+        this.soldOut = soldOut;
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.flushMillis = Math.max(10, flushMillis);
+        this.flusher = new Thread(this::flushLoop, "soldout-writer");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Write every queued toggle. Called by the background thread; public so tests and
+     * shutdown can force it.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<Integer, Boolean> batch = soldOut.unsaved();
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Object[]> args = new ArrayList<>(batch.size());
+            batch.forEach((itemId, value) -> args.add(new Object[] {value, itemId}));
+            try {
+                // Items deleted since the toggle match no row; that is fine
+                tx.executeWithoutResult(status ->
+                        jdbc.batchUpdate("update menu_item set soldout = ? where item_id = ?", args));
+            } catch (RuntimeException e) {
+                logger.warn("Failed to write {} sold-out toggles", batch.size(), e);
+                return;
+            }
+            batch.forEach(soldOut::saved);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.interrupt();
+        flush();
+    }
+
+    private void flushLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(flushMillis);
+            } catch (InterruptedException e) {
+                break;
+            }
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                logger.warn("Sold-out flush failed", e);
+            }
+        }
+    }
+}
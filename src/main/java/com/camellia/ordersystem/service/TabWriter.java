@@ -0,0 +1,122 @@
+package com.camellia.ordersystem.service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.camellia.ordersystem.dto.OrderRow;
+import com.camellia.ordersystem.entity.OrderEntity;
+import com.camellia.ordersystem.entity.OrderItemEntity;
+import com.camellia.ordersystem.entity.OrderStatus;
+import com.camellia.ordersystem.pricing.Money;
+import com.camellia.ordersystem.repo.OrderItemRepository;
+import com.camellia.ordersystem.repo.OrderRepository;
+
+/**
+ * Write path for open tabs: one order per table that later rounds are added to.
+ *
+ * A round locks the table's open tab row, bumps its total with one UPDATE by order id
+ * and inserts the new lines in one batch; the existing lines are never loaded or
+ * rewritten. Concurrent rounds for the same table apply one after the other and the
+ * total stays exact.
+ *
+ * Only a tab the kitchen is still working on (NEW or PREPARING) takes rounds. A READY
+ * or SERVED tab is closed and the round opens a new order, so an order never moves
+ * backwards through its lifecycle.
+ */
+@Component
+public class TabWriter {
+
+    /**
+     * The tab after a round: its row (new total and status), whether this round opened
+     * it, and the finished tab it closed to do so, if any.
+     */
+    public record Round(OrderRow tab, boolean opened, OrderRow closed) {}
+
+    // Partial unique index on orders(table_id) where tab_open, migration 011
+    static final String OPEN_TAB_CONSTRAINT = "uq_orders_open_tab";
+
+    private static final Set<String> ACCEPTS_ROUNDS = Set.of(OrderStatus.NEW.name(), OrderStatus.PREPARING.name());
+
+    private final OrderRepository orderRepo;
+    private final OrderItemRepository orderItemRepo;
+    private final TransactionTemplate tx;
+
+    public TabWriter(OrderRepository orderRepo, OrderItemRepository orderItemRepo,
+                     PlatformTransactionManager txManager) {
+        this.orderRepo = orderRepo;
+        this.orderItemRepo = orderItemRepo;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    /**
+     * Add priced lines (not yet attached to an order) to the table's open tab, opening
+     * one if there is none. delta is the round's total. When another round opens the
+     * table's tab first, this one is added to it.
+     */
+    public Round append(String tableId, List<OrderItemEntity> lines, Money delta) {
+        try {
+            return tx.execute(status -> appendOnce(tableId, lines, delta));
+        } catch (DataIntegrityViolationException e) {
+            if (!isOpenTabConflict(e)) {
+                throw e;
+            }
+            return tx.execute(status -> appendOnce(tableId, lines, delta));
+        }
+    }
+
+    /** Close the table's open tab so the next round starts a new order. Returns the closed tab, or null. */
+    @Transactional
+    public OrderRow close(String tableId) {
+        List<OrderRow> open = orderRepo.lockOpenTab(tableId, Limit.of(1));
+        if (open.isEmpty() || orderRepo.closeTab(open.get(0).orderId()) == 0) {
+            return null;
+        }
+        return open.get(0);
+    }
+
+    private Round appendOnce(String tableId, List<OrderItemEntity> lines, Money delta) {
+        List<OrderRow> open = orderRepo.lockOpenTab(tableId, Limit.of(1));
+        OrderRow closed = null;
+        if (!open.isEmpty()) {
+            OrderRow tab = open.get(0);
+            if (ACCEPTS_ROUNDS.contains(tab.orderStatus()) && orderRepo.addToTab(tab.orderId(), delta.toBigDecimal()) > 0) {
+                OrderEntity order = orderRepo.getReferenceById(tab.orderId());
+                lines.forEach(line -> line.setOrder(order));
+                orderItemRepo.saveAll(lines);
+                return new Round(new OrderRow(tab.orderId(), tab.tableId(), tab.totalPrice().add(delta.toBigDecimal()),
+                        tab.orderStatus(), tab.createdAt()), false, null);
+            }
+            // The kitchen is done with it: settle it and start a new order for this round
+            orderRepo.closeTab(tab.orderId());
+            closed = tab;
+        }
+
+        // Insert the order on its own first: if another round opened the tab meanwhile,
+        // this fails before the lines are touched and the retry can use them as they are
+        OrderEntity order = new OrderEntity();
+        order.setTableId(tableId);
+        order.setOrderStatus(OrderStatus.NEW.name());
+        order.setTotalPrice(delta.toBigDecimal());
+        order.setTabOpen(true);
+        OrderEntity saved = orderRepo.saveAndFlush(order);
+        lines.forEach(line -> line.setOrder(saved));
+        orderItemRepo.saveAll(lines);
+        return new Round(new OrderRow(saved.getOrderId(), saved.getTableId(), saved.getTotalPrice(),
+                saved.getOrderStatus(), saved.getCreatedAt()), true, closed);
+    }
+
+    static boolean isOpenTabConflict(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName() : null;
+        return constraint != null && constraint.toLowerCase(Locale.ROOT).contains(OPEN_TAB_CONSTRAINT);
+    }
+}
@@ -4,10 +4,14 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+// Boots the whole application against the Postgres in application.properties;
+// run with ./mvnw test -Dorders.test.postgres=true when that database is up
 @SpringBootTest
+@EnabledIfSystemProperty(named = "orders.test.postgres", matches = "true")
 class OrderSystemApplicationTests {
 
 	@Autowired
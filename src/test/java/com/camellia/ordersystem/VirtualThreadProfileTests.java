@@ -0,0 +1,25 @@
+package com.camellia.ordersystem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+class VirtualThreadProfileTests {
+
+	@Test
+	void vthreadsProfile_enablesVirtualThreadsAndCapsThePool() throws IOException {
+		Properties profile = PropertiesLoaderUtils.loadProperties(
+			new ClassPathResource("application-vthreads.properties"));
+
+		assertEquals("true", profile.getProperty("spring.threads.virtual.enabled"));
+		// A fixed-size pool is the only limit on concurrent DB work in this mode
+		assertEquals(profile.getProperty("spring.datasource.hikari.maximum-pool-size"),
+			profile.getProperty("spring.datasource.hikari.minimum-idle"));
+		assertEquals("2000", profile.getProperty("spring.datasource.hikari.connection-timeout"));
+	}
+}
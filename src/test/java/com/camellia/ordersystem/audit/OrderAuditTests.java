@@ -0,0 +1,67 @@
+package com.camellia.ordersystem.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+class OrderAuditTests {
+
+	private final Logger auditLogger = (Logger) LoggerFactory.getLogger("order.audit");
+
+	@AfterEach
+	void restoreLevel() {
+		auditLogger.setLevel(null);
+	}
+
+	@Test
+	void shutdown_drainsQueuedRecords() {
+		auditLogger.setLevel(Level.INFO);
+		OrderAudit audit = new OrderAudit(new ObjectMapper().findAndRegisterModules(), true, 1.0, 100);
+		Payload payload = new Payload();
+
+		for (int i = 0; i < 50; i++) {
+			audit.orderReceived("T1", 1, payload);
+		}
+		audit.shutdown();
+
+		assertEquals(50, payload.serialized.get());
+		assertEquals(0, audit.droppedCount());
+	}
+
+	@Test
+	void disabledLogger_buildsNoRecords() {
+		auditLogger.setLevel(Level.OFF);
+		OrderAudit audit = new OrderAudit(new ObjectMapper().findAndRegisterModules(), true, 1.0, 1);
+		Payload payload = new Payload();
+
+		for (int i = 0; i < 10; i++) {
+			audit.orderReceived("T1", 1, payload);
+			audit.orderCreated(i, "T1", 1, BigDecimal.TEN);
+		}
+		audit.shutdown();
+
+		assertEquals(0, payload.serialized.get());
+		assertEquals(0, audit.droppedCount());
+	}
+
+	/** Counts how often the audit writer serializes it. */
+	static class Payload {
+
+		final AtomicInteger serialized = new AtomicInteger();
+
+		public String getNote() {
+			serialized.incrementAndGet();
+			return "two spring rolls";
+		}
+	}
+}
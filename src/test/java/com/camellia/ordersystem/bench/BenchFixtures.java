@@ -0,0 +1,104 @@
+package com.camellia.ordersystem.bench;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.camellia.ordersystem.entity.MenuItemEntity;
+import com.camellia.ordersystem.entity.MenuItemNoteEntity;
+import com.camellia.ordersystem.entity.MenuItemOptionEntity;
+
+/**
+ * Shared fixtures for the benchmarks: realistic menus and in-memory stand-ins for
+ * repositories and the transaction manager, so hot paths run without a database.
+ */
+final class BenchFixtures {
+
+    private BenchFixtures() {}
+
+    /** A menu of the given size; each item has the given number of options and notes. */
+    static List<MenuItemEntity> menuEntities(int items, int optionsPerItem, int notesPerItem) {
+        List<MenuItemEntity> menu = new ArrayList<>(items);
+        for (int id = 1; id <= items; id++) {
+            MenuItemEntity item = new MenuItemEntity();
+            item.setItemId(id);
+            item.setItemName("Item " + id);
+            item.setItemPrice(BigDecimal.valueOf(850 + id % 7 * 100, 2));
+            item.setSoldout(id % 17 == 0);
+            for (int o = 0; o < optionsPerItem; o++) {
+                MenuItemOptionEntity option = new MenuItemOptionEntity();
+                option.setMenuItem(item);
+                option.setOptionName("Option " + o);
+                option.setOptionPrice(BigDecimal.valueOf(900 + o * 50, 2));
+                item.getOptions().add(option);
+            }
+            for (int n = 0; n < notesPerItem; n++) {
+                MenuItemNoteEntity note = new MenuItemNoteEntity();
+                note.setMenuItem(item);
+                note.setNoteName("Note " + n);
+                note.setNotePrice(BigDecimal.valueOf(n % 3 * 50, 2));
+                item.getNotes().add(note);
+            }
+            menu.add(item);
+        }
+        return menu;
+    }
+
+    /**
+     * A repository whose listed methods are answered by the given functions (keyed by
+     * method name); any other repository method throws.
+     */
+    @SuppressWarnings("unchecked")
+    static <R> R stubRepository(Class<R> type, Map<String, Function<Object[], Object>> methods) {
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> "stub " + type.getSimpleName();
+                };
+            }
+            Function<Object[], Object> answer = methods.get(method.getName());
+            if (answer == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+            return answer.apply(args);
+        });
+    }
+
+    /** Transaction manager that does nothing, for components that wrap reads in a TransactionTemplate. */
+    static PlatformTransactionManager noopTransactionManager() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {}
+
+            @Override
+            public void rollback(TransactionStatus status) {}
+        };
+    }
+
+    /** Set a field that has no setter (generated ids). */
+    static void setField(Object target, String name, Object value) {
+        try {
+            Field f = target.getClass().getDeclaredField(name);
+            f.setAccessible(true);
+            f.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.camellia.ordersystem.bench;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.camellia.ordersystem.OrderSystemApplication;
+import com.camellia.ordersystem.entity.MenuItemEntity;
+import com.camellia.ordersystem.repo.MenuItemRepository;
+
+/**
+ * GET /api/menu and POST /api/orders over real HTTP at high client concurrency,
+ * with Tomcat on platform threads vs virtual threads.
+ *
+ * Throughput mode gives requests/s; SampleTime gives the latency distribution
+ * (p0.99 is the p99). "virtual" needs a Java 21+ JVM (build with -Pjava21) and
+ * is skipped with an error on older JVMs.
+ *
+ * Runs against in-memory H2, which has no network latency, so the gap between the
+ * modes is smaller than against Postgres, where threads spend most of the request
+ * blocked on the database.
+ *
+ * Run: ./mvnw -Pbench test -Dbench=HttpThreading
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(256)
+public class HttpThreadingBenchmark {
+
+    @Param({"platform", "virtual"})
+    String threads;
+
+    ConfigurableApplicationContext ctx;
+    HttpClient client;
+    HttpRequest menuRequest;
+    HttpRequest orderRequest;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if ("virtual".equals(threads) && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21+, running " + Runtime.version());
+        }
+        ctx = new SpringApplicationBuilder(OrderSystemApplication.class).run(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--orders.audit.enabled=false",
+                // Every request is from one table; measure the server, not the rate limiter
+                "--orders.admission.enabled=false",
+                "--spring.threads.virtual.enabled=" + "virtual".equals(threads),
+                "--spring.datasource.url=jdbc:h2:mem:http;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.hikari.maximum-pool-size=20",
+                "--spring.jpa.hibernate.ddl-auto=create-drop");
+
+        MenuItemEntity item = new MenuItemEntity();
+        item.setItemName("Fried Rice");
+        item.setItemPrice(BigDecimal.valueOf(10));
+        item.setSoldout(false);
+        Integer itemId = ctx.getBean(MenuItemRepository.class).save(item).getItemId();
+
+        int port = ((WebServerApplicationContext) ctx).getWebServer().getPort();
+        String base = "http://localhost:" + port;
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        menuRequest = HttpRequest.newBuilder(URI.create(base + "/api/menu")).GET().build();
+        orderRequest = HttpRequest.newBuilder(URI.create(base + "/api/orders"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("""
+                        {"tableId":"T1","items":[
+                          {"menuItemId":%d,"quantity":2,"notes":[]},
+                          {"menuItemId":%d,"quantity":1,"notes":[]}]}
+                        """.formatted(itemId, itemId)))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public int menu() throws Exception {
+        return send(menuRequest);
+    }
+
+    @Benchmark
+    public int createOrder() throws Exception {
+        return send(orderRequest);
+    }
+
+    private int send(HttpRequest request) throws Exception {
+        HttpResponse<byte[]> resp = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (resp.statusCode() >= 400) {
+            throw new IllegalStateException(request.uri() + " -> " + resp.statusCode());
+        }
+        return resp.statusCode();
+    }
+}
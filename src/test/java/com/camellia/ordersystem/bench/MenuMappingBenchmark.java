@@ -0,0 +1,110 @@
+package com.camellia.ordersystem.bench;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.camellia.ordersystem.catalog.MenuCatalog;
+import com.camellia.ordersystem.catalog.SoldOutRegistry;
+import com.camellia.ordersystem.controller.MenuController;
+import com.camellia.ordersystem.dto.MenuItemDTO;
+import com.camellia.ordersystem.dto.MenuItemRow;
+import com.camellia.ordersystem.dto.MenuNoteRow;
+import com.camellia.ordersystem.dto.MenuOptionRow;
+import com.camellia.ordersystem.entity.MenuItemEntity;
+import com.camellia.ordersystem.feed.MenuFeed;
+import com.camellia.ordersystem.metrics.OrderMetrics;
+import com.camellia.ordersystem.repo.MenuItemRepository;
+import com.camellia.ordersystem.service.MenuWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * GET /api/menu paths with a realistic menu held in the catalog snapshot:
+ * DTO mapping (menuItems), JSON rendering of those DTOs (done once per menu
+ * version), and the served response for a fresh and a conditional (304) request.
+ *
+ * Run: ./mvnw -Pbench test -Dbench=MenuMapping
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MenuMappingBenchmark {
+
+    @Param({"50", "300"})
+    int menuSize;
+
+    @Param({"4"})
+    int optionsPerItem;
+
+    @Param({"8"})
+    int notesPerItem;
+
+    MenuController controller;
+    ObjectMapper objectMapper;
+    String etag;
+
+    @Setup
+    public void setup() {
+        List<MenuItemEntity> menu = BenchFixtures.menuEntities(menuSize, optionsPerItem, notesPerItem);
+        MenuItemRepository menuRepo = BenchFixtures.stubRepository(MenuItemRepository.class, Map.of(
+                "findMenuRows", args -> menu.stream()
+                        .map(m -> new MenuItemRow(m.getItemId(), m.getItemName(), m.getItemPrice(), m.getSoldout()))
+                        .toList(),
+                "findOptionRows", args -> menu.stream().flatMap(m -> m.getOptions().stream()
+                        .map(o -> new MenuOptionRow(m.getItemId(), o.getOptionName(), o.getOptionPrice())))
+                        .toList(),
+                "findNoteRows", args -> menu.stream().flatMap(m -> m.getNotes().stream()
+                        .map(n -> new MenuNoteRow(m.getItemId(), n.getNoteId(), n.getNoteName(), n.getNotePrice())))
+                        .toList()));
+        SoldOutRegistry soldOut = new SoldOutRegistry();
+        MenuCatalog catalog = new MenuCatalog(menuRepo, soldOut, BenchFixtures.noopTransactionManager());
+        MenuFeed menuFeed = new MenuFeed();
+        objectMapper = new ObjectMapper();
+        controller = new MenuController(menuRepo, null, catalog, objectMapper, new OrderMetrics(new SimpleMeterRegistry()),
+                new MenuWriter(menuRepo, catalog, soldOut, menuFeed), soldOut, menuFeed);
+        etag = controller.menu(request(null)).getHeaders().getETag();
+    }
+
+    @Benchmark
+    public List<MenuItemDTO> mapDtos() {
+        return controller.menuItems();
+    }
+
+    @Benchmark
+    public byte[] renderJson() throws Exception {
+        return objectMapper.writeValueAsBytes(controller.menuItems());
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> serveFull() {
+        return controller.menu(request(null));
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> serveNotModified() {
+        return controller.menu(request(etag));
+    }
+
+    private static ServletWebRequest request(String ifNoneMatch) {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/menu");
+        if (ifNoneMatch != null) {
+            req.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return new ServletWebRequest(req, new MockHttpServletResponse());
+    }
+}
@@ -0,0 +1,65 @@
+package com.camellia.ordersystem.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.camellia.ordersystem.dto.CreateOrderRequest;
+
+/**
+ * CreateOrderItem note normalization for the three shapes clients send:
+ * a notes array of strings, an array of {label: ...} objects, or one notesText string.
+ *
+ * Run: ./mvnw -Pbench test -Dbench=NotesNormalization
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NotesNormalizationBenchmark {
+
+    @Param({"1", "3", "8"})
+    int notes;
+
+    @Param({"strings", "objects", "text"})
+    String shape;
+
+    CreateOrderRequest.CreateOrderItem item;
+
+    @Setup
+    public void setup() {
+        item = new CreateOrderRequest.CreateOrderItem();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < notes; i++) {
+            names.add(" Note " + i + " ");
+        }
+        switch (shape) {
+            case "strings" -> item.notes = new ArrayList<>(names);
+            case "objects" -> {
+                List<Object> objs = new ArrayList<>();
+                names.forEach(n -> objs.add(Map.of("label", n)));
+                item.notes = objs;
+            }
+            default -> item.notesText = String.join(",", names);
+        }
+    }
+
+    @Benchmark
+    public String normalizedNotesText() {
+        return item.normalizedNotesText();
+    }
+
+    @Benchmark
+    public List<String> normalizedNotes() {
+        return item.normalizedNotes();
+    }
+}
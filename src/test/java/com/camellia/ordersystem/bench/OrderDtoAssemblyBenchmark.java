@@ -0,0 +1,81 @@
+package com.camellia.ordersystem.bench;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.camellia.ordersystem.audit.OrderAudit;
+import com.camellia.ordersystem.controller.AllOrdersController;
+import com.camellia.ordersystem.dto.OrderItemRow;
+import com.camellia.ordersystem.dto.OrderRow;
+import com.camellia.ordersystem.dto.OrderResponseDto;
+import com.camellia.ordersystem.feed.OrderFeed;
+import com.camellia.ordersystem.metrics.OrderMetrics;
+import com.camellia.ordersystem.repo.OrderRepository;
+import com.camellia.ordersystem.service.IdempotencyStore;
+import com.camellia.ordersystem.service.OrderStatusService;
+import com.camellia.ordersystem.service.SalesRollup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * GET /api/all_orders DTO assembly: one page of orders plus their flat item rows
+ * grouped into OrderResponseDto, with the repository answered from memory so only
+ * the mapping is measured.
+ *
+ * Run: ./mvnw -Pbench test -Dbench=OrderDtoAssembly
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderDtoAssemblyBenchmark {
+
+    @Param({"20", "100", "500"})
+    int orders;
+
+    @Param({"4"})
+    int linesPerOrder;
+
+    AllOrdersController controller;
+
+    @Setup
+    public void setup() {
+        List<OrderRow> page = new ArrayList<>(orders);
+        List<OrderItemRow> rows = new ArrayList<>(orders * linesPerOrder);
+        LocalDateTime now = LocalDateTime.now();
+        for (int id = orders; id >= 1; id--) {
+            page.add(new OrderRow(id, "T" + id % 12, BigDecimal.valueOf(4200, 2),
+                    id % 3 == 0 ? "READY" : "NEW", now.minusMinutes(id)));
+            for (int l = 0; l < linesPerOrder; l++) {
+                rows.add(new OrderItemRow(id, l + 1, "Item " + (l + 1), BigDecimal.valueOf(1050, 2),
+                        1 + l % 2, l % 2 == 0 ? "Option " + l : null, l % 3 == 0 ? "Note 1, Note 2" : null, null));
+            }
+        }
+        OrderRepository orderRepo = BenchFixtures.stubRepository(OrderRepository.class, Map.of(
+                "findPage", args -> page,
+                "findItemRowsByOrderIds", args -> rows));
+        controller = new AllOrdersController(orderRepo, new OrderFeed(), new OrderAudit(new ObjectMapper(), false, 0.0, 1),
+                new OrderStatusService(orderRepo), new IdempotencyStore(10, 100), new OrderMetrics(new SimpleMeterRegistry()),
+                new SalesRollup(new JdbcTemplate(), BenchFixtures.noopTransactionManager(), false, 1000));
+    }
+
+    @Benchmark
+    public ResponseEntity<List<OrderResponseDto>> assemblePage() {
+        return controller.allOrders(null, null, null, null, null, orders);
+    }
+}
@@ -0,0 +1,107 @@
+package com.camellia.ordersystem.bench;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.camellia.ordersystem.OrderSystemApplication;
+import com.camellia.ordersystem.entity.MenuItemEntity;
+import com.camellia.ordersystem.entity.OrderEntity;
+import com.camellia.ordersystem.entity.OrderItemEntity;
+import com.camellia.ordersystem.repo.MenuItemRepository;
+import com.camellia.ordersystem.service.OrderWriter;
+
+/**
+ * Order write throughput with concurrent submitters, each order carrying 30 lines.
+ *
+ * unbatched    - one INSERT round-trip per row (what IDENTITY ids forced)
+ * batched      - pooled sequence ids + JDBC batch inserts, one transaction per order
+ * group-commit - batched, plus orders from concurrent requests share a transaction
+ *
+ * Runs against in-memory H2, so absolute numbers understate the round-trip savings
+ * on a networked Postgres; compare the modes relative to each other.
+ *
+ * Run: ./mvnw -Pbench test -Dbench=OrderInsert
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class OrderInsertBenchmark {
+
+    static final int LINES_PER_ORDER = 30;
+
+    @Param({"unbatched", "batched", "group-commit"})
+    String mode;
+
+    ConfigurableApplicationContext ctx;
+    OrderWriter writer;
+    MenuItemEntity menuItem;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Command-line args so they take precedence over application.properties
+        ctx = new SpringApplicationBuilder(OrderSystemApplication.class).run(
+                "--spring.main.web-application-type=none",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.datasource.url=jdbc:h2:mem:bench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.hikari.maximum-pool-size=10",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + ("unbatched".equals(mode) ? 1 : 50),
+                "--orders.write.group-commit.enabled=" + "group-commit".equals(mode));
+        writer = ctx.getBean(OrderWriter.class);
+
+        MenuItemEntity item = new MenuItemEntity();
+        item.setItemName("Fried Rice");
+        item.setItemPrice(BigDecimal.valueOf(10));
+        item.setSoldout(false);
+        menuItem = ctx.getBean(MenuItemRepository.class).save(item);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    /** Rows written per second (order + lines), reported next to orders per second. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Rows {
+        public long rows;
+    }
+
+    @Benchmark
+    public OrderEntity createOrder(Rows counter) {
+        OrderEntity order = new OrderEntity();
+        order.setTableId("T1");
+        for (int i = 0; i < LINES_PER_ORDER; i++) {
+            OrderItemEntity oi = new OrderItemEntity();
+            oi.setMenuItem(menuItem);
+            oi.setQuantity(1);
+            oi.setUnitPrice(menuItem.getItemPrice());
+            order.addItem(oi);
+        }
+        order.setTotalPrice(menuItem.getItemPrice().multiply(BigDecimal.valueOf(LINES_PER_ORDER)));
+        OrderEntity saved = writer.save(order);
+        counter.rows += 1 + LINES_PER_ORDER;
+        return saved;
+    }
+}
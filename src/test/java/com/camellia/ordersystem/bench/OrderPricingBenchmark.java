@@ -0,0 +1,162 @@
+package com.camellia.ordersystem.bench;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.camellia.ordersystem.catalog.CatalogItem;
+import com.camellia.ordersystem.catalog.MenuSnapshot;
+import com.camellia.ordersystem.dto.CreateOrderRequest;
+import com.camellia.ordersystem.pricing.Money;
+import com.camellia.ordersystem.pricing.PricingEngine;
+
+/**
+ * Cost of pricing one order (the createOrder pricing loop, without persistence)
+ * as a function of line count and notes per line.
+ *
+ * priceOrder is the current path (PricingEngine over a menu snapshot, resolving notes
+ * and building the kitchen note text too); priceOrderDecimal is the previous
+ * BigDecimal arithmetic over the same menu, kept for comparison. The sum*
+ * pair measures only the arithmetic, with each line's notes already resolved. Add
+ * -Djmh.args="-prof gc" to compare allocation per order.
+ *
+ * Run: ./mvnw -Pbench test -Dbench=OrderPricing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderPricingBenchmark {
+
+    static final int MENU_SIZE = 300;
+    static final int OPTIONS_PER_ITEM = 6;
+    static final int NOTES_PER_ITEM = 12;
+
+    @Param({"1", "10", "40"})
+    int lines;
+
+    @Param({"0", "3", "8"})
+    int notesPerLine;
+
+    Map<Integer, CatalogItem> menu;
+    MenuSnapshot snapshot;
+    Map<Integer, DecimalItem> decimalMenu;
+    CreateOrderRequest request;
+    List<List<CatalogItem.Note>> resolvedNotes;
+    List<List<String>> resolvedNoteNames;
+
+    /** The menu item prices as BigDecimal, priced the way CatalogItem did before Money. */
+    record DecimalItem(BigDecimal itemPrice, Map<String, BigDecimal> options, Map<String, BigDecimal> notes) {
+
+        BigDecimal unitPrice(String chosenOption, List<String> noteNames) {
+            BigDecimal price = itemPrice;
+            if (chosenOption != null && !chosenOption.isBlank()) {
+                price = options.getOrDefault(chosenOption.trim(), itemPrice);
+            }
+            for (String name : noteNames) {
+                BigDecimal notePrice = notes.getOrDefault(name, BigDecimal.ZERO);
+                if (notePrice.signum() > 0) {
+                    price = price.add(notePrice);
+                }
+            }
+            return price;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        menu = new LinkedHashMap<>();
+        decimalMenu = new LinkedHashMap<>();
+        for (int id = 1; id <= MENU_SIZE; id++) {
+            Map<String, Money> options = new LinkedHashMap<>();
+            Map<String, BigDecimal> decimalOptions = new LinkedHashMap<>();
+            for (int o = 0; o < OPTIONS_PER_ITEM; o++) {
+                options.put("Option " + o, Money.ofMinor(900 + o * 50));
+                decimalOptions.put("Option " + o, BigDecimal.valueOf(900 + o * 50, 2));
+            }
+            List<CatalogItem.Note> notes = new ArrayList<>();
+            Map<String, BigDecimal> decimalNotes = new LinkedHashMap<>();
+            for (int n = 0; n < NOTES_PER_ITEM; n++) {
+                notes.add(new CatalogItem.Note(id * 100 + n, "Note " + n, Money.ofMinor(n % 3 * 50)));
+                decimalNotes.put("Note " + n, BigDecimal.valueOf(n % 3 * 50, 2));
+            }
+            menu.put(id, CatalogItem.of(id, "Item " + id, Money.ofMinor(850), false, options, notes));
+            decimalMenu.put(id, new DecimalItem(BigDecimal.valueOf(850, 2), decimalOptions, decimalNotes));
+        }
+
+        snapshot = MenuSnapshot.of(new ArrayList<>(menu.values()));
+
+        request = new CreateOrderRequest();
+        request.tableId = "T1";
+        request.items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            CreateOrderRequest.CreateOrderItem it = new CreateOrderRequest.CreateOrderItem();
+            it.menuItemId = 1 + (i * 37) % MENU_SIZE;
+            it.quantity = 1 + i % 3;
+            it.chosenOption = i % 2 == 0 ? "Option " + (i % OPTIONS_PER_ITEM) : null;
+            List<Object> notes = new ArrayList<>();
+            for (int n = 0; n < notesPerLine; n++) {
+                notes.add("Note " + ((i + n) % NOTES_PER_ITEM));
+            }
+            it.notes = notes;
+            request.items.add(it);
+        }
+
+        resolvedNotes = new ArrayList<>();
+        resolvedNoteNames = new ArrayList<>();
+        for (CreateOrderRequest.CreateOrderItem it : request.items) {
+            CatalogItem item = menu.get(it.menuItemId);
+            resolvedNotes.add(it.normalizedNotes().stream().map(item::note).toList());
+            resolvedNoteNames.add(it.normalizedNotes());
+        }
+    }
+
+    @Benchmark
+    public PricingEngine.PricedOrder priceOrder() {
+        return PricingEngine.price(snapshot, request.items);
+    }
+
+    @Benchmark
+    public BigDecimal priceOrderDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (CreateOrderRequest.CreateOrderItem it : request.items) {
+            DecimalItem item = decimalMenu.get(it.menuItemId);
+            BigDecimal unitPrice = item.unitPrice(it.chosenOption, it.normalizedNotes());
+            total = total.add(unitPrice.multiply(BigDecimal.valueOf(it.quantity)));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money sumOrder() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < request.items.size(); i++) {
+            CreateOrderRequest.CreateOrderItem it = request.items.get(i);
+            Money unitPrice = PricingEngine.unitPrice(menu.get(it.menuItemId), it.chosenOption, resolvedNotes.get(i));
+            total = total.plus(unitPrice.times(it.quantity));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal sumOrderDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < request.items.size(); i++) {
+            CreateOrderRequest.CreateOrderItem it = request.items.get(i);
+            BigDecimal unitPrice = decimalMenu.get(it.menuItemId).unitPrice(it.chosenOption, resolvedNoteNames.get(i));
+            total = total.add(unitPrice.multiply(BigDecimal.valueOf(it.quantity)));
+        }
+        return total;
+    }
+}
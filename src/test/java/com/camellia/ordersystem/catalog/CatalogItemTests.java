@@ -0,0 +1,40 @@
+package com.camellia.ordersystem.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.camellia.ordersystem.pricing.Money;
+
+class CatalogItemTests {
+
+	@Test
+	void of_indexesNotesByNameAndIdFirstNameWins() {
+		CatalogItem item = CatalogItem.of(1, "Fried Rice", Money.ofMinor(1000), false, Map.of(),
+			List.of(new CatalogItem.Note(10, "Add egg", Money.ofMinor(150)),
+				new CatalogItem.Note(11, "No onions", Money.ZERO),
+				new CatalogItem.Note(12, "Add egg", Money.ofMinor(300))));
+
+		assertEquals(List.of("Add egg", "No onions"), List.copyOf(item.notes().keySet()));
+		assertEquals(Money.ofMinor(150), item.notes().get("Add egg"));
+		assertEquals(Integer.valueOf(10), item.note("Add egg").noteId());
+		// Both duplicates stay addressable by id
+		assertEquals(Money.ofMinor(300), item.note(12).notePrice());
+		assertNull(item.note(99));
+	}
+
+	@Test
+	void note_unknownNameIsUnpricedFreeText() {
+		CatalogItem item = CatalogItem.of(1, "Fried Rice", Money.ofMinor(1000), false, Map.of(), List.of());
+
+		CatalogItem.Note note = item.note("Extra napkins");
+
+		assertNull(note.noteId());
+		assertEquals("Extra napkins", note.noteName());
+		assertEquals(Money.ZERO, note.notePrice());
+	}
+}
@@ -0,0 +1,128 @@
+package com.camellia.ordersystem.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.camellia.ordersystem.entity.MenuItemEntity;
+import com.camellia.ordersystem.repo.MenuItemRepository;
+
+// The catalog reads in its own transaction, so test data must be committed
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MenuCatalogTests {
+
+	@Autowired
+	private MenuItemRepository menuRepo;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	@AfterEach
+	void cleanUp() {
+		menuRepo.deleteAll();
+	}
+
+	@Test
+	void snapshot_isServedFromCacheUntilRefreshed() {
+		MenuCatalog catalog = new MenuCatalog(menuRepo, new SoldOutRegistry(), txManager);
+		MenuItemEntity rice = saveMenuItem("Fried Rice");
+
+		MenuSnapshot first = catalog.snapshot();
+		assertEquals(1, first.getVersion());
+		assertNotNull(first.item(rice.getItemId()));
+
+		MenuItemEntity noodles = saveMenuItem("Chow Mein");
+		assertSame(first, catalog.snapshot());
+		assertNull(catalog.snapshot().item(noodles.getItemId()));
+
+		MenuSnapshot second = catalog.refresh();
+		assertEquals(2, second.getVersion());
+		assertSame(second, catalog.snapshot());
+		assertEquals("Chow Mein", second.item(noodles.getItemId()).itemName());
+	}
+
+	@Test
+	void refreshAfterCommit_reloadsOnlyCommittedEdits() {
+		MenuCatalog catalog = new MenuCatalog(menuRepo, new SoldOutRegistry(), txManager);
+		MenuSnapshot before = catalog.snapshot();
+		TransactionTemplate tx = new TransactionTemplate(txManager);
+
+		tx.executeWithoutResult(status -> {
+			saveMenuItem("Fried Rice");
+			catalog.refreshAfterCommit();
+			status.setRollbackOnly();
+		});
+		assertSame(before, catalog.snapshot());
+
+		MenuItemEntity noodles = tx.execute(status -> {
+			MenuItemEntity saved = saveMenuItem("Chow Mein");
+			catalog.refreshAfterCommit();
+			// Not reloaded yet: the edit is still uncommitted
+			assertSame(before, catalog.snapshot());
+			return saved;
+		});
+		MenuSnapshot after = catalog.snapshot();
+		assertEquals(before.getVersion() + 1, after.getVersion());
+		assertEquals(1, after.getItems().size());
+		assertNotNull(after.item(noodles.getItemId()));
+	}
+
+	@Test
+	void refresh_concurrentReloadsFinishInVersionOrder() throws Exception {
+		MenuCatalog catalog = new MenuCatalog(menuRepo, new SoldOutRegistry(), txManager);
+		saveMenuItem("Fried Rice");
+		int reloads = 8;
+		ExecutorService pool = Executors.newFixedThreadPool(reloads);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<MenuSnapshot>> results = new ArrayList<>();
+			for (int i = 0; i < reloads; i++) {
+				results.add(pool.submit(() -> {
+					start.await();
+					return catalog.refresh();
+				}));
+			}
+			start.countDown();
+
+			Set<Long> versions = new HashSet<>();
+			for (Future<MenuSnapshot> result : results) {
+				versions.add(result.get(30, TimeUnit.SECONDS).getVersion());
+			}
+			assertEquals(reloads, versions.size());
+			// Reloads are serialized, so the newest one is the one left in place
+			assertEquals(reloads, catalog.snapshot().getVersion());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private MenuItemEntity saveMenuItem(String name) {
+		MenuItemEntity item = new MenuItemEntity();
+		item.setItemName(name);
+		item.setItemPrice(BigDecimal.TEN);
+		item.setSoldout(false);
+		return menuRepo.saveAndFlush(item);
+	}
+}
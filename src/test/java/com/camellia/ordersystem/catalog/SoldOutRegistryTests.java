@@ -0,0 +1,74 @@
+package com.camellia.ordersystem.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.camellia.ordersystem.pricing.Money;
+
+class SoldOutRegistryTests {
+
+	private final SoldOutRegistry registry = new SoldOutRegistry();
+
+	@Test
+	void set_queuesLatestValueUntilSavedAndIgnoresItemsOffTheMenu() {
+		registry.loaded(List.of(item(1, false), item(2, true)));
+
+		assertTrue(registry.set(1, true));
+		assertFalse(registry.set(1, true));
+		assertFalse(registry.set(3, true));
+		assertTrue(registry.isSoldOut(1));
+		assertFalse(registry.isSoldOut(3));
+		assertEquals(Map.of(1, true), registry.unsaved());
+
+		// Toggled back before the write finished: the newer value stays queued
+		assertTrue(registry.set(1, false));
+		registry.saved(1, true);
+		assertEquals(Map.of(1, false), registry.unsaved());
+		registry.saved(1, false);
+		assertTrue(registry.unsaved().isEmpty());
+	}
+
+	@Test
+	void loaded_keepsLiveFlagsAndSeedsNewItemsFromTheDatabase() {
+		registry.loaded(List.of(item(1, false)));
+		registry.set(1, true);
+		registry.saved(1, true);
+		long version = registry.version();
+
+		// A reload that read the row before the write landed must not undo the toggle
+		registry.loaded(List.of(item(1, false), item(2, true)));
+
+		assertTrue(registry.isSoldOut(1));
+		assertTrue(registry.isSoldOut(2));
+		assertTrue(registry.version() > version);
+
+		registry.loaded(List.of(item(2, true)));
+		assertFalse(registry.contains(1));
+	}
+
+	@Test
+	void queue_replacesAToggleStillQueuedFromBeforeTheItemWasRetired() {
+		registry.loaded(List.of(item(1, false)));
+		registry.set(1, true);
+		assertFalse(registry.queue(1, false));
+
+		// Retired before the flush; then set back to available
+		registry.loaded(List.of());
+		assertTrue(registry.queue(1, false));
+		// A flush that picked up the old toggle finishing late does not drop the new one
+		registry.saved(1, true);
+
+		assertEquals(Map.of(1, false), registry.unsaved());
+		assertFalse(registry.queued(1));
+	}
+
+	private static CatalogItem item(int itemId, boolean soldout) {
+		return CatalogItem.of(itemId, "Item " + itemId, Money.ofMinor(100), soldout, Map.of(), List.of());
+	}
+}
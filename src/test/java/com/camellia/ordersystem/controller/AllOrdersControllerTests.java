@@ -0,0 +1,255 @@
+package com.camellia.ordersystem.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.camellia.ordersystem.audit.OrderAudit;
+import com.camellia.ordersystem.dto.OrderResponseDto;
+import com.camellia.ordersystem.dto.OrderStatusResponse;
+import com.camellia.ordersystem.entity.MenuItemEntity;
+import com.camellia.ordersystem.entity.OrderEntity;
+import com.camellia.ordersystem.entity.OrderItemEntity;
+import com.camellia.ordersystem.feed.OrderFeed;
+import com.camellia.ordersystem.metrics.OrderMetrics;
+import com.camellia.ordersystem.repo.MenuItemRepository;
+import com.camellia.ordersystem.repo.OrderRepository;
+import com.camellia.ordersystem.service.IdempotencyStore;
+import com.camellia.ordersystem.service.OrderStatusService;
+import com.camellia.ordersystem.service.SalesRollup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = {
+	"spring.jpa.hibernate.ddl-auto=create-drop",
+	"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class AllOrdersControllerTests {
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	@Autowired
+	private OrderRepository orderRepo;
+
+	@Autowired
+	private MenuItemRepository menuRepo;
+
+	@Test
+	void allOrders_statementCountDoesNotGrowWithOrders() {
+		AllOrdersController controller = newController();
+		MenuItemEntity menuItem = persistMenuItem();
+
+		persistOrders(menuItem, 2, 1);
+		long fewOrders = countStatements(controller, 2);
+
+		persistOrders(menuItem, 20, 5);
+		long manyOrders = countStatements(controller, 22);
+
+		assertEquals(2, fewOrders);
+		assertEquals(fewOrders, manyOrders);
+	}
+
+	@Test
+	void orderReads_loadNoEntities() {
+		AllOrdersController controller = newController();
+		persistOrders(persistMenuItem(), 3, 2);
+		em.clear();
+		Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+
+		assertEquals(3, controller.allOrders(null, null, null, null, null, null).getBody().size());
+		assertEquals(3, controller.activeOrders(OrderPage.MAX_PAGE_SIZE).size());
+		assertEquals(1, menuRepo.findMenuRows().size());
+
+		// Rows are read straight into DTOs: nothing is loaded, fetched or left managed
+		assertEquals(0, stats.getEntityLoadCount());
+		assertEquals(0, stats.getEntityFetchCount());
+		assertEquals(0, stats.getCollectionLoadCount());
+		assertTrue(em.getEntityManager().unwrap(Session.class).getStatistics().getEntityKeys().isEmpty());
+	}
+
+	@Test
+	void allOrders_pagesWithKeysetCursor() {
+		AllOrdersController controller = newController();
+		persistOrders(persistMenuItem(), 5, 1);
+		List<Integer> ids = orderRepo.findAll(Sort.by(Sort.Direction.DESC, "orderId")).stream()
+			.map(OrderEntity::getOrderId).toList();
+		em.clear();
+
+		ResponseEntity<List<OrderResponseDto>> first = controller.allOrders(null, null, null, null, null, 2);
+		assertEquals(ids.subList(0, 2), first.getBody().stream().map(o -> o.orderId).toList());
+		String cursor = first.getHeaders().getFirst("X-Next-Cursor");
+		assertEquals(String.valueOf(ids.get(1)), cursor);
+
+		ResponseEntity<List<OrderResponseDto>> second =
+			controller.allOrders(null, null, null, null, Integer.valueOf(cursor), 2);
+		assertEquals(ids.subList(2, 4), second.getBody().stream().map(o -> o.orderId).toList());
+
+		ResponseEntity<List<OrderResponseDto>> last = controller.allOrders(null, null, null, null,
+			Integer.valueOf(second.getHeaders().getFirst("X-Next-Cursor")), 2);
+		assertEquals(ids.subList(4, 5), last.getBody().stream().map(o -> o.orderId).toList());
+		assertNull(last.getHeaders().getFirst("X-Next-Cursor"));
+	}
+
+	@Test
+	void allOrders_filtersByStatusTableAndTime() {
+		AllOrdersController controller = newController();
+		persistOrders(persistMenuItem(), 4, 1);
+		List<OrderEntity> orders = orderRepo.findAll(Sort.by("orderId"));
+		orders.get(1).setOrderStatus("PREPARING");
+		orders.get(3).setOrderStatus("PREPARING");
+		em.flush();
+		em.clear();
+
+		List<OrderResponseDto> preparing = controller.allOrders("PREPARING", null, null, null, null, null).getBody();
+		assertEquals(List.of(orders.get(3).getOrderId(), orders.get(1).getOrderId()),
+			preparing.stream().map(o -> o.orderId).toList());
+
+		List<OrderResponseDto> table = controller.allOrders(null, "T2", null, null, null, null).getBody();
+		assertEquals(List.of(orders.get(2).getOrderId()), table.stream().map(o -> o.orderId).toList());
+
+		LocalDateTime now = LocalDateTime.now();
+		assertEquals(4, controller.allOrders(null, null, now.minusHours(1), now.plusHours(1), null, null)
+			.getBody().size());
+		assertTrue(controller.allOrders(null, null, now.plusHours(1), null, null, null).getBody().isEmpty());
+		assertTrue(controller.allOrders("PREPARING", "T2", null, null, null, null).getBody().isEmpty());
+	}
+
+	@Test
+	void updateOrderStatus_followsStateMachine() {
+		AllOrdersController controller = newController();
+		persistOrders(persistMenuItem(), 1, 1);
+		Integer orderId = orderRepo.findAll().get(0).getOrderId();
+
+		ResponseStatusException skipped = assertThrows(ResponseStatusException.class,
+			() -> controller.updateOrderStatus(orderId, "READY", null));
+		assertEquals(HttpStatus.CONFLICT, skipped.getStatusCode());
+
+		OrderStatusResponse accepted = controller.updateOrderStatus(orderId, "\"ACCEPTED\"", null);
+		assertEquals("PREPARING", accepted.orderStatus);
+		assertTrue(accepted.changed);
+
+		OrderStatusResponse repeated = controller.updateOrderStatus(orderId, "PREPARING", null);
+		assertFalse(repeated.changed);
+
+		em.clear();
+		OrderEntity order = orderRepo.findById(orderId).get();
+		assertEquals("PREPARING", order.getOrderStatus());
+		assertEquals(1L, order.getVersion());
+
+		ResponseStatusException missing = assertThrows(ResponseStatusException.class,
+			() -> controller.updateOrderStatus(-1, "PREPARING", null));
+		assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+	}
+
+	@Test
+	void activeOrders_readsEveryPageOfTheSnapshot() {
+		AllOrdersController controller = newController();
+		persistOrders(persistMenuItem(), 5, 1);
+		List<OrderEntity> orders = orderRepo.findAll(Sort.by("orderId"));
+		orders.get(0).setOrderStatus("SERVED");
+		em.flush();
+		em.clear();
+
+		List<OrderResponseDto> snapshot = controller.activeOrders(2);
+
+		assertEquals(4, snapshot.size());
+		assertEquals(orders.get(4).getOrderId(), snapshot.get(0).orderId);
+		assertEquals(orders.get(1).getOrderId(), snapshot.get(3).orderId);
+		snapshot.forEach(o -> assertEquals(1, o.orderItems.size()));
+	}
+
+	@Test
+	void activeOrders_isTimedApartFromTheOrderList() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		AllOrdersController controller = newController(registry);
+		persistOrders(persistMenuItem(), 3, 1);
+		em.clear();
+
+		controller.activeOrders(2);
+
+		assertEquals(2, registry.get("orders.persistence").tag("operation", "snapshot_page").timer().count());
+		assertEquals(2, registry.get("orders.persistence").tag("operation", "snapshot_items").timer().count());
+		assertEquals(2, registry.get("orders.mapping").tag("view", "feed_snapshot").timer().count());
+		assertEquals(0, registry.get("orders.persistence").tag("operation", "items").timer().count());
+		assertEquals(0, registry.get("orders.mapping").tag("view", "all_orders").timer().count());
+
+		controller.allOrders(null, null, null, null, null, null);
+
+		assertEquals(1, registry.get("orders.mapping").tag("view", "all_orders").timer().count());
+		assertEquals(2, registry.get("orders.mapping").tag("view", "feed_snapshot").timer().count());
+	}
+
+	private AllOrdersController newController() {
+		return newController(new SimpleMeterRegistry());
+	}
+
+	private AllOrdersController newController(SimpleMeterRegistry registry) {
+		return new AllOrdersController(orderRepo, new OrderFeed(),
+			new OrderAudit(new ObjectMapper(), false, 0, 1),
+			new OrderStatusService(orderRepo), new IdempotencyStore(10, 100),
+			new OrderMetrics(registry), new SalesRollup(new JdbcTemplate(), null, false, 1000));
+	}
+
+	private long countStatements(AllOrdersController controller, int expectedOrders) {
+		em.clear();
+		Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+
+		List<OrderResponseDto> body = controller.allOrders(null, null, null, null, null, null).getBody();
+
+		assertEquals(expectedOrders, body.size());
+		body.forEach(o -> o.orderItems.forEach(i -> assertEquals("Fried Rice", i.itemName)));
+		return stats.getPrepareStatementCount();
+	}
+
+	private MenuItemEntity persistMenuItem() {
+		MenuItemEntity item = new MenuItemEntity();
+		item.setItemName("Fried Rice");
+		item.setItemPrice(BigDecimal.valueOf(10));
+		item.setSoldout(false);
+		return em.persist(item);
+	}
+
+	private void persistOrders(MenuItemEntity menuItem, int orders, int itemsPerOrder) {
+		for (int i = 0; i < orders; i++) {
+			OrderEntity order = new OrderEntity();
+			order.setTableId("T" + i);
+			for (int j = 0; j < itemsPerOrder; j++) {
+				OrderItemEntity oi = new OrderItemEntity();
+				oi.setMenuItem(menuItem);
+				oi.setQuantity(1);
+				oi.setUnitPrice(menuItem.getItemPrice());
+				order.addItem(oi);
+			}
+			em.persist(order);
+		}
+		em.flush();
+	}
+}
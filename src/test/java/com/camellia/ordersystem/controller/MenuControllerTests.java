@@ -0,0 +1,199 @@
+package com.camellia.ordersystem.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.camellia.ordersystem.catalog.MenuCatalog;
+import com.camellia.ordersystem.catalog.SoldOutRegistry;
+import com.camellia.ordersystem.entity.MenuItemEntity;
+import com.camellia.ordersystem.entity.OrderEntity;
+import com.camellia.ordersystem.entity.OrderItemEntity;
+import com.camellia.ordersystem.feed.MenuFeed;
+import com.camellia.ordersystem.metrics.OrderMetrics;
+import com.camellia.ordersystem.repo.MenuItemRepository;
+import com.camellia.ordersystem.repo.OrderItemRepository;
+import com.camellia.ordersystem.repo.OrderRepository;
+import com.camellia.ordersystem.service.MenuWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// The menu catalog reads in its own transaction, so test data must be committed
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MenuControllerTests {
+
+	@Autowired
+	private MenuItemRepository menuRepo;
+
+	@Autowired
+	private OrderItemRepository orderItemRepo;
+
+	@Autowired
+	private OrderRepository orderRepo;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	@AfterEach
+	void cleanUp() {
+		orderRepo.deleteAll();
+		menuRepo.deleteAll();
+	}
+
+	@Test
+	void acceptsGzip_honoursQualityValues() {
+		assertTrue(MenuController.acceptsGzip("gzip, deflate, br"));
+		assertTrue(MenuController.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+		assertTrue(MenuController.acceptsGzip("*"));
+
+		assertFalse(MenuController.acceptsGzip(null));
+		assertFalse(MenuController.acceptsGzip("identity"));
+		assertFalse(MenuController.acceptsGzip("gzip;q=0"));
+		assertFalse(MenuController.acceptsGzip("gzip; q=0.000, *"));
+		assertFalse(MenuController.acceptsGzip("*;q=0"));
+		assertFalse(MenuController.acceptsGzip("gzip;q=abc"));
+	}
+
+	@Test
+	void menu_servesGzipToClientsThatAcceptIt() throws IOException {
+		MenuController controller = newController(new MenuCatalog(menuRepo, new SoldOutRegistry(), txManager));
+		saveMenuItem("Fried Rice");
+
+		MockHttpServletResponse plainResp = new MockHttpServletResponse();
+		ResponseEntity<byte[]> plain = controller.menu(get(null, null, plainResp));
+		MockHttpServletResponse gzipResp = new MockHttpServletResponse();
+		ResponseEntity<byte[]> gzip = controller.menu(get("gzip", null, gzipResp));
+
+		assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertTrue(new String(plain.getBody(), StandardCharsets.UTF_8).contains("\"Fried Rice\""));
+		assertEquals("gzip", gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertArrayEquals(plain.getBody(), gunzip(gzip.getBody()));
+		assertEquals(HttpHeaders.ACCEPT_ENCODING, gzip.getHeaders().getFirst(HttpHeaders.VARY));
+		// Each representation has its own validator
+		assertNotEquals(plainResp.getHeader(HttpHeaders.ETAG), gzipResp.getHeader(HttpHeaders.ETAG));
+	}
+
+	@Test
+	void menu_answersNotModifiedUntilTheMenuChanges() {
+		MenuCatalog catalog = new MenuCatalog(menuRepo, new SoldOutRegistry(), txManager);
+		MenuController controller = newController(catalog);
+		saveMenuItem("Fried Rice");
+
+		MockHttpServletResponse first = new MockHttpServletResponse();
+		controller.menu(get("gzip", null, first));
+		String etag = first.getHeader(HttpHeaders.ETAG);
+
+		MockHttpServletResponse cached = new MockHttpServletResponse();
+		assertNull(controller.menu(get("gzip", etag, cached)));
+		assertEquals(HttpStatus.NOT_MODIFIED.value(), cached.getStatus());
+
+		// The plain representation does not match the gzip tag
+		ResponseEntity<byte[]> plain = controller.menu(get(null, etag, new MockHttpServletResponse()));
+		assertEquals(HttpStatus.OK, plain.getStatusCode());
+
+		saveMenuItem("Chow Mein");
+		catalog.refresh();
+		MockHttpServletResponse changed = new MockHttpServletResponse();
+		ResponseEntity<byte[]> body = controller.menu(get("gzip", etag, changed));
+		assertEquals(HttpStatus.OK, body.getStatusCode());
+		assertNotEquals(etag, changed.getHeader(HttpHeaders.ETAG));
+	}
+
+	@Test
+	void deleteMenuItem_refusesItemsOnOrdersWhichCanBeRetiredInstead() {
+		MenuCatalog catalog = new MenuCatalog(menuRepo, new SoldOutRegistry(), txManager);
+		MenuController controller = newController(catalog);
+		TransactionTemplate tx = new TransactionTemplate(txManager);
+		MenuItemEntity rice = saveMenuItem("Fried Rice");
+		MenuItemEntity noodles = saveMenuItem("Chow Mein");
+		saveOrder(rice);
+
+		Integer riceId = rice.getItemId();
+
+		assertEquals(HttpStatus.BAD_REQUEST, tx.execute(s -> controller.deleteMenuItem(riceId)).getStatusCode());
+		assertEquals(HttpStatus.NO_CONTENT,
+			tx.execute(s -> controller.deleteMenuItem(noodles.getItemId())).getStatusCode());
+		assertFalse(menuRepo.existsById(noodles.getItemId()));
+
+		assertEquals(HttpStatus.NO_CONTENT, tx.execute(s -> controller.setRetired(riceId, true)).getStatusCode());
+		assertNull(catalog.snapshot().item(riceId));
+		assertEquals(List.of("Fried Rice"),
+			tx.execute(s -> controller.retiredMenuItems()).stream().map(i -> i.itemName).toList());
+
+		assertEquals(HttpStatus.NO_CONTENT, tx.execute(s -> controller.setRetired(riceId, false)).getStatusCode());
+		assertNotNull(catalog.snapshot().item(riceId));
+		assertEquals(HttpStatus.NOT_FOUND, tx.execute(s -> controller.setRetired(-1, true)).getStatusCode());
+	}
+
+	private MenuController newController(MenuCatalog catalog) {
+		SoldOutRegistry soldOut = new SoldOutRegistry();
+		MenuFeed menuFeed = new MenuFeed();
+		return new MenuController(menuRepo, orderItemRepo, catalog, new ObjectMapper(),
+			new OrderMetrics(new SimpleMeterRegistry()), new MenuWriter(menuRepo, catalog, soldOut, menuFeed),
+			soldOut, menuFeed);
+	}
+
+	private static ServletWebRequest get(String acceptEncoding, String ifNoneMatch, MockHttpServletResponse response) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/menu");
+		if (acceptEncoding != null) {
+			request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+		}
+		if (ifNoneMatch != null) {
+			request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		}
+		return new ServletWebRequest(request, response);
+	}
+
+	private static byte[] gunzip(byte[] data) throws IOException {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+			return in.readAllBytes();
+		}
+	}
+
+	private MenuItemEntity saveMenuItem(String name) {
+		MenuItemEntity item = new MenuItemEntity();
+		item.setItemName(name);
+		item.setItemPrice(BigDecimal.TEN);
+		item.setSoldout(false);
+		return menuRepo.saveAndFlush(item);
+	}
+
+	private void saveOrder(MenuItemEntity menuItem) {
+		OrderEntity order = new OrderEntity();
+		order.setTableId("T1");
+		OrderItemEntity line = new OrderItemEntity();
+		line.setMenuItem(menuItem);
+		line.setQuantity(1);
+		line.setUnitPrice(menuItem.getItemPrice());
+		order.addItem(line);
+		orderRepo.saveAndFlush(order);
+	}
+}
@@ -0,0 +1,58 @@
+package com.camellia.ordersystem.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import com.camellia.ordersystem.dto.OrderItemRow;
+import com.camellia.ordersystem.dto.OrderResponseDto;
+import com.camellia.ordersystem.dto.OrderRow;
+import com.camellia.ordersystem.pricing.Money;
+
+class OrderPageTests {
+
+	@Test
+	void pageSize_defaultsAndClamps() {
+		assertEquals(OrderPage.DEFAULT_PAGE_SIZE, OrderPage.pageSize(null));
+		assertEquals(1, OrderPage.pageSize(0));
+		assertEquals(OrderPage.MAX_PAGE_SIZE, OrderPage.pageSize(100_000));
+	}
+
+	@Test
+	void addItems_attachesLinesToTheirOrdersInRowOrder() {
+		OrderPage page = new OrderPage(List.of(order(7), order(5)));
+
+		page.addItems(List.of(line(5, "Tea"), line(7, "Rice"), line(5, "Soup")));
+
+		List<OrderResponseDto> orders = page.orders();
+		assertEquals(List.of(7, 5), orders.stream().map(o -> o.orderId).toList());
+		assertEquals(List.of("Rice"), orders.get(0).orderItems.stream().map(i -> i.itemName).toList());
+		assertEquals(List.of("Tea", "Soup"), orders.get(1).orderItems.stream().map(i -> i.itemName).toList());
+		assertEquals(Money.ofMinor(1250), orders.get(1).orderItems.get(0).unitPrice);
+	}
+
+	@Test
+	void response_setsTheCursorOnlyOnAFullPage() {
+		List<OrderResponseDto> full = new OrderPage(List.of(order(9), order(8))).orders();
+
+		ResponseEntity<List<OrderResponseDto>> first = OrderPage.response(full, 2);
+		ResponseEntity<List<OrderResponseDto>> last = OrderPage.response(full, 3);
+
+		assertEquals("8", first.getHeaders().getFirst("X-Next-Cursor"));
+		assertNull(last.getHeaders().getFirst("X-Next-Cursor"));
+	}
+
+	private static OrderRow order(int orderId) {
+		return new OrderRow(orderId, "T1", new BigDecimal("25.00"), "NEW", LocalDateTime.now());
+	}
+
+	private static OrderItemRow line(int orderId, String itemName) {
+		return new OrderItemRow(orderId, 1, itemName, new BigDecimal("12.50"), 1, null, null, null);
+	}
+}
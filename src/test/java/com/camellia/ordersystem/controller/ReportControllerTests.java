@@ -0,0 +1,73 @@
+package com.camellia.ordersystem.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.camellia.ordersystem.dto.NoteUsageRow;
+import com.camellia.ordersystem.entity.MenuItemEntity;
+import com.camellia.ordersystem.entity.OrderEntity;
+import com.camellia.ordersystem.entity.OrderItemEntity;
+import com.camellia.ordersystem.entity.OrderItemNoteEntity;
+import com.camellia.ordersystem.repo.OrderItemNoteRepository;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class ReportControllerTests {
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private OrderItemNoteRepository orderItemNoteRepo;
+
+	@Test
+	void noteUsage_aggregatesNoteRowsByIdWeightedByQuantity() {
+		MenuItemEntity rice = persistMenuItem();
+		// A note name with a comma stays one note
+		persistOrder(rice, 2, new OrderItemNoteEntity(10, "Add egg", new BigDecimal("1.50")),
+			new OrderItemNoteEntity(11, "Spicy, extra hot", BigDecimal.ZERO));
+		persistOrder(rice, 1, new OrderItemNoteEntity(10, "Add egg", new BigDecimal("1.50")),
+			new OrderItemNoteEntity(null, "Extra napkins", BigDecimal.ZERO));
+		em.clear();
+		ReportController controller = new ReportController(orderItemNoteRepo);
+
+		List<NoteUsageRow> usage = controller.noteUsage(null, null);
+
+		assertEquals(3, usage.size());
+		assertEquals(new NoteUsageRow(10, "Add egg", 3L, new BigDecimal("4.50")), usage.get(0));
+		assertEquals(new NoteUsageRow(11, "Spicy, extra hot", 2L, new BigDecimal("0.00")), usage.get(1));
+		assertEquals(new NoteUsageRow(null, "Extra napkins", 1L, new BigDecimal("0.00")), usage.get(2));
+		assertTrue(controller.noteUsage(LocalDateTime.now().plusHours(1), null).isEmpty());
+	}
+
+	private MenuItemEntity persistMenuItem() {
+		MenuItemEntity item = new MenuItemEntity();
+		item.setItemName("Fried Rice");
+		item.setItemPrice(BigDecimal.TEN);
+		item.setSoldout(false);
+		return em.persist(item);
+	}
+
+	private void persistOrder(MenuItemEntity menuItem, int quantity, OrderItemNoteEntity... notes) {
+		OrderEntity order = new OrderEntity();
+		order.setTableId("T1");
+		OrderItemEntity oi = new OrderItemEntity();
+		oi.setMenuItem(menuItem);
+		oi.setQuantity(quantity);
+		oi.setUnitPrice(menuItem.getItemPrice());
+		for (OrderItemNoteEntity note : notes) {
+			oi.addNote(note);
+		}
+		order.addItem(oi);
+		em.persist(order);
+		em.flush();
+	}
+}
@@ -0,0 +1,66 @@
+package com.camellia.ordersystem.feed;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class OrderFeedTests {
+
+	private final OrderFeed feed = new OrderFeed();
+
+	@AfterEach
+	void shutdown() {
+		feed.shutdown();
+	}
+
+	@Test
+	void eventsAfter_replaysOnlyWhatTheClientMissed() {
+		publish(3);
+
+		assertEquals(List.of(2L, 3L), seqs(feed.eventsAfter(feed.token(1))));
+		assertEquals(List.of(), seqs(feed.eventsAfter(feed.token(3))));
+		// Nothing to resume from: the client gets a snapshot
+		assertNull(feed.eventsAfter(null));
+		assertNull(feed.eventsAfter(""));
+	}
+
+	@Test
+	void eventsAfter_rejectsTokensFromAnotherRunOrMalformed() {
+		publish(3);
+		String current = feed.token(1);
+		String otherEpoch = "x" + current;
+
+		assertNull(feed.eventsAfter(otherEpoch));
+		assertNull(feed.eventsAfter("1"));
+		assertNull(feed.eventsAfter(current.substring(0, current.indexOf('-')) + "-abc"));
+		// From the future (a previous run that got further)
+		assertNull(feed.eventsAfter(feed.token(4)));
+	}
+
+	@Test
+	void eventsAfter_fallsBackToSnapshotOnceTheTokenLeftTheHistory() {
+		int published = OrderFeed.HISTORY_SIZE + 5;
+		publish(published);
+
+		// History holds events 6..1005: after 5 is exactly the whole buffer, after 4 is a gap
+		List<OrderEvent> all = feed.eventsAfter(feed.token(5));
+		assertEquals(OrderFeed.HISTORY_SIZE, all.size());
+		assertEquals(6L, all.get(0).seq());
+		assertNull(feed.eventsAfter(feed.token(4)));
+		assertNull(feed.eventsAfter(feed.token(1)));
+	}
+
+	private void publish(int count) {
+		for (int i = 1; i <= count; i++) {
+			feed.statusChanged(i, "NEW");
+		}
+	}
+
+	private static List<Long> seqs(List<OrderEvent> events) {
+		return events.stream().map(OrderEvent::seq).toList();
+	}
+}
@@ -0,0 +1,68 @@
+package com.camellia.ordersystem.load;
+
+import java.util.Arrays;
+
+/**
+ * Latency samples and SQL statement counts recorded for one endpoint during the
+ * measured phase of a load run.
+ */
+final class EndpointStats {
+
+    private final String name;
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+    private long statements;
+    private int maxStatements;
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    synchronized void record(long latencyNanos, int sqlStatements, boolean error) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        statements += sqlStatements;
+        maxStatements = Math.max(maxStatements, sqlStatements);
+        if (error) {
+            errors++;
+        }
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    synchronized String report(double seconds) {
+        if (count == 0) {
+            return String.format("%-34s %8d", name, 0);
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return String.format("%-34s %8d %7d %9.1f %8.2f %8.2f %8.2f %8.2f %7.1f %5d",
+                name, count, errors, count / seconds,
+                millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.95)),
+                millis(percentile(sorted, 0.99)), millis(sorted[count - 1]),
+                (double) statements / count, maxStatements);
+    }
+
+    static String header() {
+        return String.format("%-34s %8s %7s %9s %8s %8s %8s %8s %7s %5s",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "sql/req", "max");
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,24 @@
+package com.camellia.ordersystem.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+class EndpointStatsTests {
+
+	@Test
+	void report_givesNearestRankPercentilesAndStatementsPerRequest() {
+		EndpointStats stats = new EndpointStats("GET /api/menu");
+		// 1..2000 ms, recorded out of order and past the initial sample buffer
+		for (int ms = 2000; ms >= 1; ms--) {
+			stats.record(ms * 1_000_000L, ms % 2 == 0 ? 2 : 1, ms == 7);
+		}
+
+		List<String> columns = List.of(stats.report(2.0).trim().split("\\s+"));
+
+		assertEquals(2000, stats.count());
+		assertEquals(List.of("GET", "/api/menu", "2000", "1", "1000.0",
+			"1000.00", "1900.00", "1980.00", "2000.00", "1.5", "2"), columns);
+	}
+}
@@ -0,0 +1,351 @@
+package com.camellia.ordersystem.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.camellia.ordersystem.OrderSystemApplication;
+import com.camellia.ordersystem.audit.CorrelationIdFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * End-to-end load test: boots the application on a random port against in-memory H2
+ * in PostgreSQL mode, seeds a menu, then drives it over HTTP from concurrent clients
+ * with restaurant-shaped traffic and reports, per endpoint, throughput, p50/p95/p99
+ * latency and SQL statements per request.
+ *
+ * The default traffic is a weighted mix of
+ * <ul>
+ *   <li>menu: customers loading GET /api/menu, most of them revalidating with the ETag they hold,</li>
+ *   <li>order: POST /api/orders with 1-6 lines using options and notes,</li>
+ *   <li>poll: the kitchen screen polling GET /api/all_orders?status=NEW,</li>
+ *   <li>status: staff moving orders NEW -> PREPARING -> READY -> SERVED.</li>
+ * </ul>
+ * With {@code replay=<file>} a recording is replayed instead: one JSON object per line
+ * with {@code method}, {@code path} and an optional {@code body}, sent round-robin.
+ *
+ * Options (key=value): clients (16), duration and warmup in seconds (30, 5), menu-items (40),
+ * mix (menu:30,order:25,poll:30,status:15), replay. Arguments starting with "--" are passed
+ * to Spring, e.g. --spring.threads.virtual.enabled=true or a --spring.datasource.url of a
+ * real Postgres with the schema from database/.
+ *
+ * H2 has no network hop, so absolute latencies are lower than against Postgres; the SQL
+ * statement counts carry over unchanged.
+ *
+ * Run: ./mvnw -Pload test [-Dload.args="clients=64 duration=60"]
+ */
+public final class LoadHarness {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final Map<String, String> options;
+    private final List<String> springArgs;
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final ConcurrentLinkedQueue<Ticket> tickets = new ConcurrentLinkedQueue<>();
+    private final AtomicLong requestIds = new AtomicLong();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private String baseUrl;
+    private List<Integer> menuItemIds = List.of();
+    private volatile String menuEtag;
+    private volatile long measureFrom = Long.MAX_VALUE;
+
+    /** An order the status traffic is working through; held by one client at a time. */
+    private record Ticket(int orderId, int step) {}
+
+    private static final String[] STATUS_STEPS = {"PREPARING", "READY", "SERVED"};
+
+    private LoadHarness(Map<String, String> options, List<String> springArgs) {
+        this.options = options;
+        this.springArgs = springArgs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                springArgs.add(arg);
+            } else if (arg.contains("=")) {
+                options.put(arg.substring(0, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else if (!arg.isBlank()) {
+                throw new IllegalArgumentException("Expected key=value or --spring.property=value: " + arg);
+            }
+        }
+        new LoadHarness(options, springArgs).run();
+    }
+
+    private void run() throws Exception {
+        int clients = intOption("clients", 16);
+        int warmup = intOption("warmup", 5);
+        int duration = intOption("duration", 30);
+
+        try (ConfigurableApplicationContext ctx = start()) {
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) ctx).getWebServer().getPort();
+            Traffic traffic = options.containsKey("replay")
+                    ? replay(Path.of(options.get("replay")))
+                    : mix(options.getOrDefault("mix", "menu:30,order:25,poll:30,status:15"));
+            if (!options.containsKey("replay")) {
+                seedMenu(intOption("menu-items", 40));
+            }
+
+            System.out.printf("Load: %d clients, %ds warmup, %ds measured against %s%n", clients, warmup, duration, baseUrl);
+            measureFrom = System.nanoTime() + Duration.ofSeconds(warmup).toNanos();
+            long end = measureFrom + Duration.ofSeconds(duration).toNanos();
+            CountDownLatch done = new CountDownLatch(clients);
+            for (int i = 0; i < clients; i++) {
+                Thread t = new Thread(() -> {
+                    try {
+                        while (System.nanoTime() < end) {
+                            traffic.next();
+                        }
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    } finally {
+                        done.countDown();
+                    }
+                }, "load-client-" + i);
+                t.start();
+            }
+            done.await();
+            report(duration);
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--orders.audit.enabled=false",
+                "--spring.datasource.url=jdbc:h2:mem:load;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + SqlStatementCounter.class.getName()));
+        // devtools would restart the app in a new classloader and re-apply the arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // Later arguments win, so anything given on the command line overrides the defaults above
+        args.addAll(springArgs);
+        return new SpringApplicationBuilder(OrderSystemApplication.class).run(args.toArray(String[]::new));
+    }
+
+    // ---- traffic ----
+
+    @FunctionalInterface
+    private interface Traffic {
+        void next() throws Exception;
+    }
+
+    private Traffic mix(String spec) {
+        Map<String, Traffic> scenarios = Map.of(
+                "menu", this::loadMenu,
+                "order", this::placeOrder,
+                "poll", this::pollKitchen,
+                "status", this::advanceStatus);
+        List<Traffic> picks = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split(":");
+            Traffic scenario = scenarios.get(kv[0]);
+            if (scenario == null || kv.length != 2) {
+                throw new IllegalArgumentException("Unknown mix entry '" + part + "', expected one of " + scenarios.keySet());
+            }
+            picks.add(scenario);
+            weights.add(Integer.parseInt(kv[1]));
+        }
+        int total = weights.stream().mapToInt(Integer::intValue).sum();
+        return () -> {
+            int r = ThreadLocalRandom.current().nextInt(total);
+            for (int i = 0; i < picks.size(); i++) {
+                r -= weights.get(i);
+                if (r < 0) {
+                    picks.get(i).next();
+                    return;
+                }
+            }
+        };
+    }
+
+    private void loadMenu() throws Exception {
+        String etag = menuEtag;
+        // Returning customers revalidate; first visits and hard reloads fetch the full menu
+        boolean revalidate = etag != null && ThreadLocalRandom.current().nextInt(10) < 7;
+        HttpRequest.Builder req = HttpRequest.newBuilder(URI.create(baseUrl + "/api/menu")).GET()
+                .header("Accept-Encoding", "gzip");
+        if (revalidate) {
+            req.header("If-None-Match", etag);
+        }
+        HttpResponse<byte[]> resp = send(revalidate ? "GET /api/menu (If-None-Match)" : "GET /api/menu", req);
+        resp.headers().firstValue("ETag").ifPresent(e -> menuEtag = e);
+    }
+
+    private void placeOrder() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ObjectNode order = JSON.createObjectNode().put("tableId", "T" + (1 + random.nextInt(20)));
+        var items = order.putArray("items");
+        for (int i = 0, lines = 1 + random.nextInt(6); i < lines; i++) {
+            ObjectNode line = items.addObject()
+                    .put("menuItemId", menuItemIds.get(random.nextInt(menuItemIds.size())))
+                    .put("quantity", 1 + random.nextInt(3));
+            if (random.nextBoolean()) {
+                line.put("chosenOption", "Option " + random.nextInt(3));
+            }
+            var notes = line.putArray("notes");
+            for (int n = random.nextInt(3); n > 0; n--) {
+                notes.add("Note " + random.nextInt(4));
+            }
+        }
+        HttpResponse<byte[]> resp = send("POST /api/orders", post("/api/orders", JSON.writeValueAsString(order)));
+        if (resp.statusCode() == 200) {
+            tickets.add(new Ticket(JSON.readTree(resp.body()).path("orderId").asInt(), 0));
+        }
+    }
+
+    private void pollKitchen() throws Exception {
+        send("GET /api/all_orders?status=NEW",
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/all_orders?status=NEW&limit=50")).GET());
+    }
+
+    private void advanceStatus() throws Exception {
+        Ticket ticket = tickets.poll();
+        if (ticket == null) {
+            placeOrder();
+            return;
+        }
+        String status = STATUS_STEPS[ticket.step()];
+        HttpRequest.Builder req = HttpRequest.newBuilder(URI.create(baseUrl + "/api/all_orders/" + ticket.orderId()))
+                .header("Content-Type", "text/plain")
+                .header("Idempotency-Key", "load-" + ticket.orderId() + "-" + status)
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(status));
+        HttpResponse<byte[]> resp = send("PATCH /api/all_orders/{id}", req);
+        if (resp.statusCode() == 200 && ticket.step() + 1 < STATUS_STEPS.length) {
+            tickets.add(new Ticket(ticket.orderId(), ticket.step() + 1));
+        }
+    }
+
+    private Traffic replay(Path file) throws IOException {
+        List<HttpRequest.Builder> requests = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode entry = JSON.readTree(line);
+            String method = entry.path("method").asText("GET").toUpperCase();
+            String path = entry.path("path").asText();
+            JsonNode body = entry.path("body");
+            String payload = body.isMissingNode() || body.isNull() ? null
+                    : body.isTextual() ? body.asText() : JSON.writeValueAsString(body);
+            HttpRequest.Builder req = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .method(method, payload == null ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofString(payload));
+            if (payload != null) {
+                req.header("Content-Type", body.isTextual() ? "text/plain" : "application/json");
+            }
+            requests.add(req);
+            names.add(method + " " + path.replaceAll("/\\d+", "/{id}"));
+        }
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException("No requests in " + file);
+        }
+        AtomicLong position = new AtomicLong();
+        return () -> {
+            int i = (int) (position.getAndIncrement() % requests.size());
+            send(names.get(i), requests.get(i).copy());
+        };
+    }
+
+    // ---- plumbing ----
+
+    /** Menu items shaped like payload.json: a base price plus priced options and notes. */
+    private void seedMenu(int count) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            ObjectNode item = JSON.createObjectNode()
+                    .put("itemName", "Item " + i)
+                    .put("itemPrice", 8 + i % 7)
+                    .put("soldout", false);
+            var opts = item.putArray("options");
+            for (int o = 0; o < 3; o++) {
+                opts.addObject().put("optionName", "Option " + o).put("optionPrice", 9 + o);
+            }
+            var notes = item.putArray("notes");
+            for (int n = 0; n < 4; n++) {
+                notes.addObject().put("noteName", "Note " + n).put("notePrice", n % 2);
+            }
+            HttpResponse<byte[]> resp = client.send(post("/api/menu", JSON.writeValueAsString(item)).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            if (resp.statusCode() != 201) {
+                throw new IllegalStateException("Seeding menu failed: " + resp.statusCode());
+            }
+            ids.add(JSON.readTree(resp.body()).path("itemId").asInt());
+        }
+        menuItemIds = List.copyOf(ids);
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private HttpResponse<byte[]> send(String endpoint, HttpRequest.Builder request) throws Exception {
+        String requestId = "load-" + requestIds.incrementAndGet();
+        HttpRequest req = request.header(CorrelationIdFilter.HEADER, requestId).build();
+        long start = System.nanoTime();
+        HttpResponse<byte[]> resp = client.send(req, HttpResponse.BodyHandlers.ofByteArray());
+        long latency = System.nanoTime() - start;
+        int statements = SqlStatementCounter.take(requestId);
+        if (start >= measureFrom) {
+            EndpointStats s;
+            synchronized (stats) {
+                s = stats.computeIfAbsent(endpoint, EndpointStats::new);
+            }
+            s.record(latency, statements, resp.statusCode() >= 400);
+        }
+        return resp;
+    }
+
+    private void report(int seconds) {
+        System.out.println();
+        System.out.println(EndpointStats.header());
+        int total = 0;
+        synchronized (stats) {
+            for (EndpointStats s : stats.values()) {
+                System.out.println(s.report(seconds));
+                total += s.count();
+            }
+        }
+        System.out.printf("%-34s %8d %17.1f%n", "total", total, (double) total / seconds);
+    }
+
+    private int intOption(String name, int defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+}
@@ -0,0 +1,39 @@
+package com.camellia.ordersystem.load;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.MDC;
+
+import com.camellia.ordersystem.audit.CorrelationIdFilter;
+import com.camellia.ordersystem.metrics.RequestSqlMetrics;
+
+/**
+ * Counts the SQL statements Hibernate prepares, per request. Requests are told apart
+ * by the correlation id CorrelationIdFilter puts in the MDC, so the load harness sends
+ * a unique X-Request-Id with each call and collects the count once the response is in.
+ *
+ * A JDBC batch is prepared once, so a batched insert counts as one statement (one
+ * round trip), however many rows it carries. Extends the application's own inspector
+ * so http.server.requests.sql keeps being recorded during load runs.
+ */
+public class SqlStatementCounter extends RequestSqlMetrics.Inspector {
+
+    private static final Map<String, AtomicInteger> BY_REQUEST = new ConcurrentHashMap<>();
+
+    @Override
+    public String inspect(String sql) {
+        String requestId = MDC.get(CorrelationIdFilter.MDC_KEY);
+        if (requestId != null) {
+            BY_REQUEST.computeIfAbsent(requestId, k -> new AtomicInteger()).incrementAndGet();
+        }
+        return super.inspect(sql);
+    }
+
+    /** Statements prepared for the request so far; forgets the request. */
+    static int take(String requestId) {
+        AtomicInteger count = BY_REQUEST.remove(requestId);
+        return count == null ? 0 : count.get();
+    }
+}
@@ -0,0 +1,33 @@
+package com.camellia.ordersystem.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import com.camellia.ordersystem.audit.CorrelationIdFilter;
+
+class SqlStatementCounterTests {
+
+	@AfterEach
+	void clearMdc() {
+		MDC.clear();
+	}
+
+	@Test
+	void inspect_countsPerRequestIdAndTakeForgets() {
+		SqlStatementCounter counter = new SqlStatementCounter();
+
+		counter.inspect("select 1");
+		MDC.put(CorrelationIdFilter.MDC_KEY, "load-1");
+		counter.inspect("select 1");
+		counter.inspect("select 2");
+		MDC.put(CorrelationIdFilter.MDC_KEY, "load-2");
+		counter.inspect("select 3");
+
+		assertEquals(2, SqlStatementCounter.take("load-1"));
+		assertEquals(0, SqlStatementCounter.take("load-1"));
+		assertEquals(1, SqlStatementCounter.take("load-2"));
+	}
+}
@@ -0,0 +1,54 @@
+package com.camellia.ordersystem.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class RequestSqlMetricsTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final RequestSqlMetrics metrics = new RequestSqlMetrics(registry);
+	private final RequestSqlMetrics.Inspector inspector = new RequestSqlMetrics.Inspector();
+
+	@Test
+	void filter_recordsStatementsPerRequestByUriPattern() throws Exception {
+		request("/api/all_orders", 2);
+		request("/api/all_orders", 4);
+		request(null, 1);
+		// Off a request thread: not attributed to anything
+		inspector.inspect("select 1");
+
+		DistributionSummary orders = registry.get("http.server.requests.sql")
+			.tag("method", "GET").tag("uri", "/api/all_orders").summary();
+		assertEquals(2, orders.count());
+		assertEquals(6, orders.totalAmount());
+		assertEquals(4, orders.max());
+		assertEquals(1, registry.get("http.server.requests.sql").tag("uri", "UNKNOWN").summary().totalAmount());
+	}
+
+	private void request(String pattern, int statements) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/all_orders");
+		HttpServlet handler = new HttpServlet() {
+			@Override
+			protected void service(HttpServletRequest req, HttpServletResponse resp) {
+				for (int i = 0; i < statements; i++) {
+					inspector.inspect("select " + i);
+				}
+				if (pattern != null) {
+					req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+				}
+			}
+		};
+		metrics.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(handler));
+	}
+}
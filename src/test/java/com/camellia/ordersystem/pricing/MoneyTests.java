@@ -0,0 +1,59 @@
+package com.camellia.ordersystem.pricing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class MoneyTests {
+
+	@Test
+	void of_roundsHalfUpToCents() {
+		assertEquals(Money.ofMinor(1050), Money.of(new BigDecimal("10.5")));
+		assertEquals(Money.ofMinor(1001), Money.of(new BigDecimal("10.005")));
+		assertEquals(Money.ofMinor(1000), Money.of(new BigDecimal("10.0049")));
+		assertEquals(Money.ofMinor(-1001), Money.of(new BigDecimal("-10.005")));
+		assertEquals(Money.ZERO, Money.of(new BigDecimal("0.004")));
+		assertNull(Money.of(null));
+
+		Currency yen = Currency.getInstance("JPY");
+		assertEquals(new Money(11, yen), Money.of(new BigDecimal("10.5"), yen, RoundingMode.HALF_UP));
+		assertEquals(new Money(10, yen), Money.of(new BigDecimal("10.5"), yen, RoundingMode.HALF_EVEN));
+	}
+
+	@Test
+	void arithmetic_isExactAndKeepsTheCurrencyScale() {
+		Money total = Money.of(new BigDecimal("0.10")).times(3).plus(Money.of(new BigDecimal("0.20")));
+
+		assertEquals(Money.ofMinor(50), total);
+		assertEquals(new BigDecimal("0.50"), total.toBigDecimal());
+		assertEquals(new BigDecimal("-0.25"), total.minus(Money.ofMinor(75)).toBigDecimal());
+		assertEquals("USD 0.50", total.toString());
+	}
+
+	@Test
+	void arithmetic_failsOnOverflowAndMixedCurrencies() {
+		Money max = Money.ofMinor(Long.MAX_VALUE);
+		Money euros = new Money(100, Currency.getInstance("EUR"));
+
+		assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinor(1)));
+		assertThrows(ArithmeticException.class, () -> max.times(2));
+		assertThrows(IllegalArgumentException.class, () -> Money.ofMinor(100).plus(euros));
+		assertThrows(IllegalArgumentException.class, () -> Money.ofMinor(100).compareTo(euros));
+	}
+
+	@Test
+	void json_isADecimalNumber() throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+
+		assertEquals("10.50", mapper.writeValueAsString(Money.ofMinor(1050)));
+		assertEquals(Money.ofMinor(1050), mapper.readValue("10.5", Money.class));
+	}
+}
@@ -0,0 +1,72 @@
+package com.camellia.ordersystem.pricing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.camellia.ordersystem.catalog.CatalogItem;
+import com.camellia.ordersystem.catalog.MenuSnapshot;
+import com.camellia.ordersystem.dto.CreateOrderRequest;
+
+class PricingEngineTests {
+
+	private final MenuSnapshot menu = MenuSnapshot.of(List.of(
+			CatalogItem.of(1, "Fried Rice", Money.ofMinor(1000), false,
+					Map.of("Chicken", Money.ofMinor(1150)),
+					List.of(new CatalogItem.Note(10, "Add egg", Money.ofMinor(150)),
+							new CatalogItem.Note(11, "No onions", Money.ZERO),
+							new CatalogItem.Note(12, "Small", Money.ofMinor(-200))))));
+
+	@Test
+	void price_optionReplacesBasePriceAndEveryNoteIsCharged() {
+		CreateOrderRequest.CreateOrderItem it = line(2, "Chicken");
+		it.notes = List.of("Add egg", "No onions", "Extra napkins");
+
+		PricingEngine.PricedOrder order = PricingEngine.price(menu, List.of(it, line(1, "Beef")));
+
+		assertEquals(Money.ofMinor(1300), order.lines().get(0).unitPrice());
+		assertEquals("Add egg, No onions, Extra napkins", order.lines().get(0).notesText());
+		assertNull(order.lines().get(0).notes().get(2).noteId());
+		// Unknown option: base price
+		assertEquals(Money.ofMinor(1000), order.lines().get(1).unitPrice());
+		assertEquals(Money.ofMinor(3600), order.total());
+	}
+
+	@Test
+	void price_notesByIdAndNegativeNotesAreNotApplied() {
+		CreateOrderRequest.CreateOrderItem it = line(1, null);
+		it.noteIds = List.of(12, 10);
+
+		PricingEngine.PricedLine priced = PricingEngine.price(menu, List.of(it)).lines().get(0);
+
+		assertEquals(Money.ofMinor(1150), priced.unitPrice());
+		assertEquals("Small, Add egg", priced.notesText());
+		assertEquals(Money.ZERO, PricingEngine.charge(priced.notes().get(0)));
+	}
+
+	@Test
+	void price_rejectsUnknownItemsAndNoteIds() {
+		CreateOrderRequest.CreateOrderItem unknownNote = line(1, null);
+		unknownNote.noteIds = List.of(99);
+		CreateOrderRequest.CreateOrderItem unknownItem = line(1, null);
+		unknownItem.menuItemId = 7;
+
+		assertEquals("unknown_note", assertThrows(PricingEngine.PricingException.class,
+				() -> PricingEngine.price(menu, List.of(unknownNote))).code());
+		assertEquals("unknown_menu_item", assertThrows(PricingEngine.PricingException.class,
+				() -> PricingEngine.price(menu, List.of(unknownItem))).code());
+	}
+
+	private static CreateOrderRequest.CreateOrderItem line(int quantity, String option) {
+		CreateOrderRequest.CreateOrderItem it = new CreateOrderRequest.CreateOrderItem();
+		it.menuItemId = 1;
+		it.quantity = quantity;
+		it.chosenOption = option;
+		return it;
+	}
+}
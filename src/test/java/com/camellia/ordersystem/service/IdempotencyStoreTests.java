@@ -0,0 +1,63 @@
+package com.camellia.ordersystem.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class IdempotencyStoreTests {
+
+	@Test
+	void execute_evictsTheOldestFinishedKeysPastMaxEntries() {
+		IdempotencyStore store = new IdempotencyStore(10, 20);
+		AtomicInteger runs = new AtomicInteger();
+
+		// All keys are well inside the TTL: only the cap can remove them
+		for (int i = 0; i < 100; i++) {
+			store.execute("order", "k" + i, runs::incrementAndGet);
+		}
+
+		assertTrue(store.size() <= 20, "size " + store.size());
+		// The newest key is still remembered, the oldest is not
+		assertEquals(100, store.execute("order", "k99", runs::incrementAndGet));
+		assertEquals(101, store.execute("order", "k0", runs::incrementAndGet));
+	}
+
+	@Test
+	void execute_refusesNewKeysWhileTheStoreIsFullOfRunningRequests() throws Exception {
+		IdempotencyStore store = new IdempotencyStore(10, 1);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<?> running = CompletableFuture.runAsync(
+			() -> store.execute("order", "a", () -> block(started, release)));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		ResponseStatusException e = assertThrows(ResponseStatusException.class,
+			() -> store.execute("order", "b", () -> "b"));
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+
+		// The refused key is forgotten and goes through once there is room
+		release.countDown();
+		running.get(5, TimeUnit.SECONDS);
+		assertEquals("b", store.execute("order", "b", () -> "b"));
+		assertEquals(1, store.size());
+	}
+
+	private static Object block(CountDownLatch started, CountDownLatch release) {
+		started.countDown();
+		try {
+			release.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return "done";
+	}
+}
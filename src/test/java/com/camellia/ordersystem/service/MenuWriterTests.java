@@ -0,0 +1,197 @@
+package com.camellia.ordersystem.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.camellia.ordersystem.catalog.MenuCatalog;
+import com.camellia.ordersystem.catalog.SoldOutRegistry;
+import com.camellia.ordersystem.dto.MenuImportItem;
+import com.camellia.ordersystem.dto.MenuImportResult;
+import com.camellia.ordersystem.dto.MenuItemNoteRequest;
+import com.camellia.ordersystem.dto.MenuItemOptionRequest;
+import com.camellia.ordersystem.dto.MenuItemRequest;
+import com.camellia.ordersystem.entity.MenuItemEntity;
+import com.camellia.ordersystem.entity.MenuItemNoteEntity;
+import com.camellia.ordersystem.feed.MenuFeed;
+import com.camellia.ordersystem.repo.MenuItemRepository;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class MenuWriterTests {
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private MenuItemRepository menuRepo;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void importItems_renamedItemIsNotMatchedByItsOldName() {
+		MenuWriter writer = newWriter();
+		MenuItemEntity rice = persistMenuItem("Fried Rice");
+
+		MenuImportResult result = writer.importItems(List.of(
+			importItem(rice.getItemId(), "Egg Fried Rice", 11),
+			importItem(null, "Fried Rice", 9),
+			importItem(null, "Egg Fried Rice", 12)).iterator());
+		em.flush();
+		em.clear();
+
+		assertEquals(new MenuImportResult(1, 2, 0), result);
+		MenuItemEntity renamed = menuRepo.findById(rice.getItemId()).get();
+		assertEquals("Egg Fried Rice", renamed.getItemName());
+		assertEquals(0, BigDecimal.valueOf(12).compareTo(renamed.getItemPrice()));
+		assertEquals(2, menuRepo.count());
+	}
+
+	@Test
+	void apply_duplicateOptionAndNoteNamesAreStoredOnceAndStayUnchanged() {
+		MenuWriter writer = newWriter();
+		MenuItemEntity rice = persistMenuItem("Fried Rice");
+		MenuItemRequest request = new MenuItemRequest("Fried Rice", BigDecimal.TEN, false);
+		request.options = List.of(new MenuItemOptionRequest("Chicken", BigDecimal.valueOf(12)),
+			new MenuItemOptionRequest("Chicken", BigDecimal.valueOf(15)));
+		request.notes = List.of(new MenuItemNoteRequest("Add egg", BigDecimal.ONE),
+			new MenuItemNoteRequest("Add egg", BigDecimal.valueOf(2)));
+
+		assertEquals(MenuWriter.Change.MENU, writer.apply(rice, request));
+		em.flush();
+
+		assertEquals(1, rice.getOptions().size());
+		assertEquals(0, BigDecimal.valueOf(12).compareTo(rice.getOptions().get(0).getOptionPrice()));
+		assertEquals(1, rice.getNotes().size());
+		// The same request again changes nothing: no row is deleted and re-inserted
+		assertEquals(MenuWriter.Change.NONE, writer.apply(rice, request));
+	}
+
+	@Test
+	void apply_reconcilesNotesByNameKeepingIdsOfKeptNotes() {
+		MenuWriter writer = newWriter();
+		MenuItemEntity rice = persistMenuItem("Fried Rice");
+		MenuItemRequest request = new MenuItemRequest("Fried Rice", BigDecimal.TEN, false);
+		request.notes = List.of(new MenuItemNoteRequest("Add egg", BigDecimal.ONE),
+			new MenuItemNoteRequest("No onions", BigDecimal.ZERO));
+		writer.apply(rice, request);
+		em.flush();
+		Integer egg = noteId(rice, "Add egg");
+
+		request.notes = List.of(new MenuItemNoteRequest("Add egg", BigDecimal.valueOf(2)),
+			new MenuItemNoteRequest("Spicy", BigDecimal.ZERO));
+		assertEquals(MenuWriter.Change.MENU, writer.apply(rice, request));
+		em.flush();
+		em.clear();
+
+		MenuItemEntity reloaded = menuRepo.findById(rice.getItemId()).get();
+		assertEquals(List.of("Add egg", "Spicy"),
+			reloaded.getNotes().stream().map(MenuItemNoteEntity::getNoteName).toList());
+		// Repriced in place: order lines that captured the note id still point at it
+		assertEquals(egg, noteId(reloaded, "Add egg"));
+		assertEquals(0, BigDecimal.valueOf(2).compareTo(reloaded.getNotes().get(0).getNotePrice()));
+	}
+
+	@Test
+	void patch_nullListKeepsChildrenAndEmptyListRemovesThem() {
+		MenuWriter writer = newWriter();
+		MenuItemEntity rice = persistMenuItem("Fried Rice");
+		MenuItemRequest request = new MenuItemRequest("Fried Rice", BigDecimal.TEN, false);
+		request.options = List.of(new MenuItemOptionRequest("Chicken", BigDecimal.valueOf(12)));
+		request.notes = List.of(new MenuItemNoteRequest("Add egg", BigDecimal.ONE));
+		writer.apply(rice, request);
+		em.flush();
+
+		MenuItemRequest price = new MenuItemRequest();
+		price.itemPrice = BigDecimal.valueOf(11);
+		assertEquals(MenuWriter.Change.MENU, writer.patch(rice, price));
+		assertEquals(1, rice.getOptions().size());
+		assertEquals(1, rice.getNotes().size());
+
+		MenuItemRequest noNotes = new MenuItemRequest();
+		noNotes.notes = List.of();
+		assertEquals(MenuWriter.Change.MENU, writer.patch(rice, noNotes));
+		em.flush();
+		assertEquals(1, rice.getOptions().size());
+		assertTrue(rice.getNotes().isEmpty());
+	}
+
+	@Test
+	void setSoldout_retiredItemIsWrittenAfterTheToggleQueuedBeforeItWasRetired() {
+		SoldOutRegistry soldOut = new SoldOutRegistry();
+		MenuCatalog catalog = new MenuCatalog(menuRepo, soldOut, txManager);
+		MenuWriter writer = new MenuWriter(menuRepo, catalog, soldOut, new MenuFeed());
+		SoldOutWriter soldOutWriter = new SoldOutWriter(soldOut, jdbc, txManager, 3_600_000);
+		try {
+			MenuItemEntity rice = persistMenuItem("Fried Rice");
+			catalog.refresh();
+
+			assertTrue(writer.setSoldout(rice.getItemId(), true));
+			menuRepo.updateRetired(rice.getItemId(), true);
+			catalog.refresh();
+			assertTrue(writer.setSoldout(rice.getItemId(), false));
+			assertFalse(writer.setSoldout(-1, false));
+			soldOutWriter.flush();
+
+			assertEquals(false, jdbc.queryForObject("select soldout from menu_item where item_id = ?",
+				Boolean.class, rice.getItemId()));
+			assertTrue(soldOut.unsaved().isEmpty());
+		} finally {
+			soldOutWriter.shutdown();
+		}
+	}
+
+	@Test
+	void patch_soldoutAloneDoesNotReloadTheMenu() {
+		MenuWriter writer = newWriter();
+		MenuItemEntity rice = persistMenuItem("Fried Rice");
+		MenuItemRequest soldout = new MenuItemRequest();
+		soldout.soldout = true;
+		MenuItemRequest renameAndRestock = new MenuItemRequest();
+		renameAndRestock.itemName = "Egg Fried Rice";
+		renameAndRestock.soldout = false;
+
+		assertEquals(MenuWriter.Change.SOLDOUT, writer.patch(rice, soldout));
+		assertEquals(MenuWriter.Change.NONE, writer.patch(rice, soldout));
+		assertEquals(MenuWriter.Change.MENU, writer.patch(rice, renameAndRestock));
+		assertFalse(MenuWriter.Change.SOLDOUT.reloadsMenu());
+	}
+
+	private static Integer noteId(MenuItemEntity item, String name) {
+		return item.getNotes().stream().filter(n -> n.getNoteName().equals(name)).findFirst().get().getNoteId();
+	}
+
+	private MenuWriter newWriter() {
+		SoldOutRegistry soldOut = new SoldOutRegistry();
+		return new MenuWriter(menuRepo, new MenuCatalog(menuRepo, soldOut, txManager), soldOut, new MenuFeed());
+	}
+
+	private MenuItemEntity persistMenuItem(String name) {
+		MenuItemEntity item = new MenuItemEntity();
+		item.setItemName(name);
+		item.setItemPrice(BigDecimal.TEN);
+		item.setSoldout(false);
+		return em.persistAndFlush(item);
+	}
+
+	private static MenuImportItem importItem(Integer itemId, String name, int price) {
+		MenuImportItem item = new MenuImportItem();
+		item.itemId = itemId;
+		item.itemName = name;
+		item.itemPrice = BigDecimal.valueOf(price);
+		return item;
+	}
+}
@@ -0,0 +1,65 @@
+package com.camellia.ordersystem.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+class OrderAdmissionTests {
+
+	@Test
+	void admit_refusesATableOverItsBurstWithRetryAfterButNotOtherTables() {
+		OrderAdmission admission = new OrderAdmission(true, 2, 1, 100, 100, 10, 100);
+
+		admission.admit("T1").close();
+		admission.admit("T1").close();
+		OrderAdmission.RejectedException e = assertThrows(OrderAdmission.RejectedException.class,
+			() -> admission.admit("T1"));
+
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatusCode());
+		assertEquals("table_rate_limited", e.reason());
+		// One token a minute: the next one is at most a minute away
+		long retryAfter = Long.parseLong(e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+		assertTrue(retryAfter >= 1 && retryAfter <= 60, "Retry-After " + retryAfter);
+		admission.admit("T2").close();
+	}
+
+	@Test
+	void admit_refusesOverTheGlobalBurst() {
+		OrderAdmission admission = new OrderAdmission(true, 5, 0, 2, 0, 10, 100);
+
+		admission.admit("T1").close();
+		admission.admit("T2").close();
+		OrderAdmission.RejectedException e = assertThrows(OrderAdmission.RejectedException.class,
+			() -> admission.admit("T3"));
+
+		assertEquals("rate_limited", e.reason());
+	}
+
+	@Test
+	void admit_refusesOverMaxInFlightAndRefundsTheTokensItTook() {
+		// No refill at all: a later success can only come from a refunded token
+		OrderAdmission admission = new OrderAdmission(true, 1, 0, 2, 0, 1, 100);
+
+		OrderAdmission.Permit running = admission.admit("T1");
+		OrderAdmission.RejectedException e = assertThrows(OrderAdmission.RejectedException.class,
+			() -> admission.admit("T2"));
+		assertEquals("overloaded", e.reason());
+		assertEquals("1", e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+		running.close();
+		admission.admit("T2").close();
+	}
+
+	@Test
+	void admit_letsEverythingThroughWhenDisabled() {
+		OrderAdmission admission = new OrderAdmission(false, 1, 0, 1, 0, 1, 1);
+
+		OrderAdmission.Permit first = admission.admit("T1");
+		admission.admit("T1").close();
+		first.close();
+	}
+}
@@ -0,0 +1,88 @@
+package com.camellia.ordersystem.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.camellia.ordersystem.entity.MenuItemEntity;
+import com.camellia.ordersystem.entity.OrderEntity;
+import com.camellia.ordersystem.entity.OrderItemEntity;
+import com.camellia.ordersystem.entity.OrderItemNoteEntity;
+import com.camellia.ordersystem.entity.OrderStatus;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class OrderArchiverTests {
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	@Test
+	void archiveBefore_movesOnlyOldFinishedClosedOrdersWithLinesAndNotes() {
+		// Batch size 1: the job has to loop until a batch comes back short
+		OrderArchiver archiver = new OrderArchiver(jdbc, txManager, false, 30, 1, 15);
+		MenuItemEntity rice = persistMenuItem();
+		LocalDateTime old = LocalDateTime.now().minusDays(60);
+
+		Integer served = persistOrder(rice, OrderStatus.SERVED, false, old);
+		Integer cancelled = persistOrder(rice, OrderStatus.CANCELLED, false, old);
+		Integer active = persistOrder(rice, OrderStatus.PREPARING, false, old);
+		Integer openTab = persistOrder(rice, OrderStatus.SERVED, true, old);
+		Integer recent = persistOrder(rice, OrderStatus.SERVED, false, LocalDateTime.now());
+		em.clear();
+
+		int moved = archiver.archiveBefore(LocalDateTime.now().minusDays(30));
+
+		assertEquals(2, moved);
+		assertEquals(List.of(active, openTab, recent), ids("select order_id from orders order by order_id"));
+		assertEquals(List.of(served, cancelled), ids("select order_id from orders_archive order by order_id"));
+		assertEquals(List.of("Fried Rice", "Fried Rice"),
+			jdbc.queryForList("select item_name from order_item_archive order by order_id", String.class));
+		assertEquals(2, jdbc.queryForObject("select count(*) from order_item_note_archive", Integer.class));
+		assertEquals(3, jdbc.queryForObject("select count(*) from order_item_note", Integer.class));
+	}
+
+	private List<Integer> ids(String sql) {
+		return jdbc.queryForList(sql, Integer.class);
+	}
+
+	private MenuItemEntity persistMenuItem() {
+		MenuItemEntity item = new MenuItemEntity();
+		item.setItemName("Fried Rice");
+		item.setItemPrice(BigDecimal.TEN);
+		item.setSoldout(false);
+		return em.persist(item);
+	}
+
+	private Integer persistOrder(MenuItemEntity menuItem, OrderStatus status, boolean tabOpen, LocalDateTime createdAt) {
+		OrderEntity order = new OrderEntity();
+		order.setTableId("T1");
+		order.setOrderStatus(status.name());
+		order.setTotalPrice(BigDecimal.TEN);
+		order.setTabOpen(tabOpen);
+		OrderItemEntity line = new OrderItemEntity();
+		line.setMenuItem(menuItem);
+		line.setQuantity(1);
+		line.setUnitPrice(BigDecimal.TEN);
+		line.addNote(new OrderItemNoteEntity(null, "No onions", BigDecimal.ZERO));
+		order.addItem(line);
+		Integer orderId = em.persistAndFlush(order).getOrderId();
+		// created_at is set on insert; back-date it directly
+		jdbc.update("update orders set created_at = ? where order_id = ?", createdAt, orderId);
+		return orderId;
+	}
+}
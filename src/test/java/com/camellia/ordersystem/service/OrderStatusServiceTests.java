@@ -0,0 +1,93 @@
+package com.camellia.ordersystem.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.camellia.ordersystem.entity.OrderEntity;
+import com.camellia.ordersystem.entity.OrderStatus;
+import com.camellia.ordersystem.repo.OrderRepository;
+
+// Racing transitions each commit on their own, as concurrent requests do
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderStatusServiceTests {
+
+	@Autowired
+	private OrderRepository orderRepo;
+
+	@AfterEach
+	void cleanUp() {
+		orderRepo.deleteAll();
+	}
+
+	@Test
+	void transition_racingRequestsChangeTheOrderOnce() throws Exception {
+		OrderStatusService service = new OrderStatusService(orderRepo);
+		Integer orderId = saveOrder(OrderStatus.PREPARING);
+		int racers = 8;
+		ExecutorService pool = Executors.newFixedThreadPool(racers);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<OrderStatusService.Transition>> results = new ArrayList<>();
+			for (int i = 0; i < racers; i++) {
+				results.add(pool.submit(() -> {
+					start.await();
+					return service.transition(orderId, OrderStatus.READY);
+				}));
+			}
+			start.countDown();
+
+			int changed = 0;
+			for (Future<OrderStatusService.Transition> result : results) {
+				OrderStatusService.Transition t = result.get(30, TimeUnit.SECONDS);
+				assertEquals(OrderStatus.READY, t.status());
+				changed += t.changed() ? 1 : 0;
+			}
+			assertEquals(1, changed);
+			assertEquals(1L, orderRepo.findById(orderId).get().getVersion());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void transition_losingAConflictingRaceIsRefused() {
+		OrderStatusService service = new OrderStatusService(orderRepo);
+		Integer orderId = saveOrder(OrderStatus.PREPARING);
+
+		// The other screen cancelled first: READY no longer matches the UPDATE's condition
+		assertTrue(service.transition(orderId, OrderStatus.CANCELLED).changed());
+		ResponseStatusException lost = assertThrows(ResponseStatusException.class,
+			() -> service.transition(orderId, OrderStatus.READY));
+
+		assertEquals(HttpStatus.CONFLICT, lost.getStatusCode());
+		OrderEntity order = orderRepo.findById(orderId).get();
+		assertEquals("CANCELLED", order.getOrderStatus());
+		assertEquals(1L, order.getVersion());
+	}
+
+	private Integer saveOrder(OrderStatus status) {
+		OrderEntity order = new OrderEntity();
+		order.setTableId("T1");
+		order.setOrderStatus(status.name());
+		return orderRepo.saveAndFlush(order).getOrderId();
+	}
+}
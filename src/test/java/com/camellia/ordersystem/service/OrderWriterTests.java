@@ -0,0 +1,88 @@
+package com.camellia.ordersystem.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.camellia.ordersystem.entity.OrderEntity;
+import com.camellia.ordersystem.repo.OrderRepository;
+
+class OrderWriterTests {
+
+	private final CountDownLatch saving = new CountDownLatch(1);
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@Test
+	void shutdown_failsQueuedOrdersAndRefusesNewOnes() throws Exception {
+		OrderWriter writer = new OrderWriter(blockingRepository(), NO_TX, true, 1, 0);
+
+		// The writer thread is stuck saving the first order; the second waits in the queue
+		CompletableFuture<OrderEntity> inBatch = CompletableFuture.supplyAsync(() -> writer.save(new OrderEntity()));
+		assertTrue(saving.await(5, TimeUnit.SECONDS));
+		CompletableFuture<OrderEntity> queued = CompletableFuture.supplyAsync(() -> writer.save(new OrderEntity()));
+		Thread.sleep(100);
+
+		writer.shutdown();
+
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, statusOf(queued));
+		assertTrue(inBatch.isDone());
+		ResponseStatusException refused = assertThrows(ResponseStatusException.class,
+			() -> writer.save(new OrderEntity()));
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, refused.getStatusCode());
+	}
+
+	@Test
+	void save_withoutGroupCommitWritesInline() {
+		OrderEntity order = new OrderEntity();
+		release.countDown();
+		OrderWriter writer = new OrderWriter(blockingRepository(), NO_TX, false, 1, 0);
+
+		assertSame(order, writer.save(order));
+	}
+
+	private static HttpStatus statusOf(CompletableFuture<OrderEntity> future) throws Exception {
+		ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+		return HttpStatus.valueOf(((ResponseStatusException) e.getCause()).getStatusCode().value());
+	}
+
+	/** save() signals saving, then blocks until release (or the writer thread is interrupted). */
+	private OrderRepository blockingRepository() {
+		return (OrderRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+			new Class<?>[] {OrderRepository.class}, (proxy, method, args) -> {
+				if (!method.getName().equals("save")) {
+					throw new UnsupportedOperationException(method.getName());
+				}
+				saving.countDown();
+				release.await();
+				return args[0];
+			});
+	}
+
+	private static final PlatformTransactionManager NO_TX = new PlatformTransactionManager() {
+		@Override
+		public TransactionStatus getTransaction(TransactionDefinition definition) {
+			return new SimpleTransactionStatus();
+		}
+
+		@Override
+		public void commit(TransactionStatus status) {}
+
+		@Override
+		public void rollback(TransactionStatus status) {}
+	};
+}
@@ -0,0 +1,162 @@
+package com.camellia.ordersystem.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.camellia.ordersystem.dto.OrderResponseDto;
+import com.camellia.ordersystem.entity.MenuItemEntity;
+import com.camellia.ordersystem.entity.OrderEntity;
+import com.camellia.ordersystem.entity.OrderItemEntity;
+import com.camellia.ordersystem.entity.OrderStatus;
+import com.camellia.ordersystem.pricing.Money;
+
+// The rollups use "on conflict do nothing": H2 needs its PostgreSQL mode for that
+@DataJpaTest(properties = {
+	"spring.jpa.hibernate.ddl-auto=create-drop",
+	"spring.test.database.replace=none",
+	"spring.datasource.url=jdbc:h2:mem:rollups;MODE=PostgreSQL",
+	"spring.datasource.username=sa",
+	"spring.datasource.password="
+})
+class SalesRollupTests {
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	// Flushed by the tests only: the background thread never wakes up during a test
+	private SalesRollup rollup;
+
+	@AfterEach
+	void shutdown() {
+		if (rollup != null) {
+			rollup.shutdown();
+		}
+	}
+
+	@Test
+	void flush_foldsOrdersAndRoundsIntoOneRowPerItemHourAndTableDay() {
+		rollup = new SalesRollup(jdbc, txManager, true, 3_600_000);
+		MenuItemEntity rice = persistMenuItem();
+		OrderEntity first = persistOrder(rice, 2, 500);
+		OrderEntity second = persistOrder(rice, 1, 650);
+
+		rollup.orderCreated(created(first, rice, 2, 500));
+		rollup.orderCreated(created(second, rice, 1, 650));
+		rollup.flush();
+		assertEquals(List.of(3L, new BigDecimal("16.50")), itemTotals(rice));
+		assertEquals(List.of(2L, new BigDecimal("16.50")), tableTotals());
+
+		// Later flushes add to the existing rows; a round is revenue, not another order
+		rollup.roundAppended(created(first, rice, 4, 500));
+		rollup.orderCreated(created(persistOrder(rice, 1, 500), rice, 1, 500));
+		rollup.flush();
+		rollup.flush();
+
+		assertEquals(List.of(8L, new BigDecimal("41.50")), itemTotals(rice));
+		assertEquals(List.of(3L, new BigDecimal("41.50")), tableTotals());
+		assertEquals(1, jdbc.queryForObject("select count(*) from item_sales_hourly", Integer.class));
+	}
+
+	@Test
+	void cancel_takesLinesAndRevenueBackOutButKeepsTheTicket() {
+		rollup = new SalesRollup(jdbc, txManager, true, 3_600_000);
+		MenuItemEntity rice = persistMenuItem();
+		OrderEntity order = persistOrder(rice, 3, 500);
+
+		rollup.orderCreated(created(order, rice, 3, 500));
+		rollup.flush();
+		assertEquals(List.of(3L, new BigDecimal("15.00")), itemTotals(rice));
+		assertEquals(Map.of("ORDER_COUNT", 1L, "CANCELLED_COUNT", 0L, "TICKET_COUNT", 0L), tableCounts());
+
+		rollup.statusChanged(order.getOrderId(), OrderStatus.READY);
+		rollup.flush();
+		rollup.statusChanged(order.getOrderId(), OrderStatus.CANCELLED);
+		rollup.flush();
+
+		assertEquals(List.of(0L, new BigDecimal("0.00")), itemTotals(rice));
+		assertEquals(0, BigDecimal.ZERO.compareTo(jdbc.queryForObject(
+			"select revenue from table_sales_daily", BigDecimal.class)));
+		// Cancelled after READY: still a ticket (documented on TableSalesRow)
+		assertEquals(Map.of("ORDER_COUNT", 1L, "CANCELLED_COUNT", 1L, "TICKET_COUNT", 1L), tableCounts());
+	}
+
+	@Test
+	void cancel_skipsLegacyLinesWithoutMenuItem() {
+		rollup = new SalesRollup(jdbc, txManager, true, 3_600_000);
+		OrderEntity order = persistOrder(null, 2, 400);
+
+		rollup.statusChanged(order.getOrderId(), OrderStatus.CANCELLED);
+		rollup.flush();
+
+		assertEquals(0, jdbc.queryForObject("select count(*) from item_sales_hourly", Integer.class));
+		assertEquals(1L, tableCounts().get("CANCELLED_COUNT"));
+	}
+
+	private List<Object> itemTotals(MenuItemEntity item) {
+		return jdbc.queryForObject("select quantity, revenue from item_sales_hourly where menu_item_id = ?",
+			(rs, i) -> List.of(rs.getLong(1), rs.getBigDecimal(2).setScale(2)), item.getItemId());
+	}
+
+	private List<Object> tableTotals() {
+		return jdbc.queryForObject("select order_count, revenue from table_sales_daily",
+			(rs, i) -> List.of(rs.getLong(1), rs.getBigDecimal(2).setScale(2)));
+	}
+
+	private Map<String, Long> tableCounts() {
+		return jdbc.queryForObject("select order_count, cancelled_count, ticket_count from table_sales_daily",
+			(rs, i) -> Map.of("ORDER_COUNT", rs.getLong(1), "CANCELLED_COUNT", rs.getLong(2),
+				"TICKET_COUNT", rs.getLong(3)));
+	}
+
+	private MenuItemEntity persistMenuItem() {
+		MenuItemEntity item = new MenuItemEntity();
+		item.setItemName("Fried Rice");
+		item.setItemPrice(BigDecimal.valueOf(5));
+		item.setSoldout(false);
+		return em.persist(item);
+	}
+
+	private OrderEntity persistOrder(MenuItemEntity menuItem, int quantity, long unitCents) {
+		OrderEntity order = new OrderEntity();
+		order.setTableId("T1");
+		order.setOrderStatus(OrderStatus.NEW.name());
+		order.setTotalPrice(Money.ofMinor(unitCents * quantity).toBigDecimal());
+		OrderItemEntity line = new OrderItemEntity();
+		line.setMenuItem(menuItem);
+		line.setQuantity(quantity);
+		line.setUnitPrice(Money.ofMinor(unitCents).toBigDecimal());
+		order.addItem(line);
+		return em.persistAndFlush(order);
+	}
+
+	private static OrderResponseDto created(OrderEntity order, MenuItemEntity menuItem, int quantity, long unitCents) {
+		OrderResponseDto dto = new OrderResponseDto();
+		dto.orderId = order.getOrderId();
+		dto.tableId = order.getTableId();
+		dto.totalPrice = Money.of(order.getTotalPrice());
+		dto.createdAt = order.getCreatedAt();
+		OrderResponseDto.OrderItemResponseDto line = new OrderResponseDto.OrderItemResponseDto();
+		line.menuItemId = menuItem.getItemId();
+		line.quantity = quantity;
+		line.unitPrice = Money.ofMinor(unitCents);
+		dto.orderItems.add(line);
+		return dto;
+	}
+}
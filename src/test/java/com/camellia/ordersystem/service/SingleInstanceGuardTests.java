@@ -0,0 +1,88 @@
+package com.camellia.ordersystem.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+class SingleInstanceGuardTests {
+
+	// Statements run and whether the connection was closed, in order
+	private final List<String> calls = new ArrayList<>();
+
+	@Test
+	void start_takesTheLockAndReleaseUnlocksIt() throws Exception {
+		SingleInstanceGuard guard = new SingleInstanceGuard(database("PostgreSQL", true), true);
+		assertEquals(List.of("select pg_try_advisory_lock(?)"), calls);
+
+		guard.release();
+
+		assertEquals(List.of("select pg_try_advisory_lock(?)", "select pg_advisory_unlock(?)", "close"), calls);
+	}
+
+	@Test
+	void start_failsWhileAnotherInstanceHoldsTheLock() {
+		IllegalStateException e = assertThrows(IllegalStateException.class,
+			() -> new SingleInstanceGuard(database("PostgreSQL", false), true));
+
+		assertTrue(e.getMessage().contains("Another order-system instance"));
+		assertEquals(List.of("select pg_try_advisory_lock(?)", "close"), calls);
+	}
+
+	@Test
+	void start_skipsOtherDatabasesAndWhenDisabled() throws Exception {
+		new SingleInstanceGuard(database("H2", false), true).release();
+		assertEquals(List.of("close"), calls);
+
+		new SingleInstanceGuard(database("PostgreSQL", false), false).release();
+		assertEquals(List.of("close"), calls);
+	}
+
+	/** A database whose advisory lock is free (lockFree) or held by someone else. */
+	private DataSource database(String product, boolean lockFree) {
+		DatabaseMetaData meta = proxy(DatabaseMetaData.class, (method, args) -> product);
+		ResultSet rs = proxy(ResultSet.class, (method, args) -> switch (method) {
+			case "next" -> true;
+			case "getBoolean" -> lockFree;
+			default -> null;
+		});
+		Connection connection = proxy(Connection.class, (method, args) -> switch (method) {
+			case "getMetaData" -> meta;
+			case "prepareStatement" -> {
+				calls.add((String) args[0]);
+				yield proxy(PreparedStatement.class, (m, a) -> switch (m) {
+					case "executeQuery" -> rs;
+					case "execute" -> true;
+					default -> null;
+				});
+			}
+			case "close" -> {
+				calls.add("close");
+				yield null;
+			}
+			default -> throw new UnsupportedOperationException(method);
+		});
+		return proxy(DataSource.class, (method, args) -> connection);
+	}
+
+	private interface Handler {
+		Object handle(String method, Object[] args);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, Handler handler) {
+		return (T) Proxy.newProxyInstance(SingleInstanceGuardTests.class.getClassLoader(), new Class<?>[] {type},
+			(proxy, method, args) -> handler.handle(method.getName(), args));
+	}
+}
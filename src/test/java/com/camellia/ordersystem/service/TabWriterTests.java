@@ -0,0 +1,227 @@
+package com.camellia.ordersystem.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.camellia.ordersystem.dto.OrderResponseDto;
+import com.camellia.ordersystem.dto.OrderRow;
+import com.camellia.ordersystem.entity.MenuItemEntity;
+import com.camellia.ordersystem.entity.OrderItemEntity;
+import com.camellia.ordersystem.entity.OrderStatus;
+import com.camellia.ordersystem.pricing.Money;
+import com.camellia.ordersystem.repo.MenuItemRepository;
+import com.camellia.ordersystem.repo.OrderItemRepository;
+import com.camellia.ordersystem.repo.OrderRepository;
+
+// The rollups use "on conflict do nothing": H2 needs its PostgreSQL mode for that
+@DataJpaTest(properties = {
+	"spring.jpa.hibernate.ddl-auto=create-drop",
+	"spring.test.database.replace=none",
+	"spring.datasource.url=jdbc:h2:mem:tabs;MODE=PostgreSQL",
+	"spring.datasource.username=sa",
+	"spring.datasource.password="
+})
+class TabWriterTests {
+
+	@Autowired
+	private OrderRepository orderRepo;
+
+	@Autowired
+	private OrderItemRepository orderItemRepo;
+
+	@Autowired
+	private MenuItemRepository menuRepo;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	private TabWriter tabs;
+	private SalesRollup rollup;
+
+	@BeforeEach
+	void setUp() {
+		// H2 has no partial indexes: a unique index on a column that is only set for open
+		// tabs stands in for uq_orders_open_tab (migration 011)
+		jdbc.execute("alter table orders add column if not exists open_tab_table varchar(255)"
+			+ " generated always as (case when tab_open then table_id end)");
+		jdbc.execute("create unique index if not exists uq_orders_open_tab on orders (open_tab_table)");
+		tabs = new TabWriter(orderRepo, orderItemRepo, txManager);
+	}
+
+	@AfterEach
+	void shutdown() {
+		if (rollup != null) {
+			rollup.shutdown();
+		}
+	}
+
+	@Test
+	void append_opensATabThenAddsRoundsWithoutTouchingItsStatus() {
+		MenuItemEntity rice = menuRepo.save(menuItem());
+
+		TabWriter.Round first = tabs.append("T1", lines(rice, 2), Money.ofMinor(1000));
+		orderRepo.transitionStatus(first.tab().orderId(), List.of(OrderStatus.NEW.name()), OrderStatus.PREPARING.name());
+		TabWriter.Round second = tabs.append("T1", lines(rice, 1), Money.ofMinor(500));
+		orderRepo.flush();
+
+		assertTrue(first.opened());
+		assertEquals(false, second.opened());
+		assertNull(second.closed());
+		assertEquals(first.tab().orderId(), second.tab().orderId());
+		assertEquals(0, new BigDecimal("15.00").compareTo(second.tab().totalPrice()));
+		assertEquals(OrderStatus.PREPARING.name(), second.tab().orderStatus());
+		assertEquals(List.of(2, 1), jdbc.queryForList(
+			"select quantity from order_item where order_id = ? order by order_item_id", Integer.class,
+			first.tab().orderId()));
+		assertEquals(0, new BigDecimal("15.00").compareTo(jdbc.queryForObject(
+			"select total_price from orders where order_id = ?", BigDecimal.class, first.tab().orderId())));
+	}
+
+	@Test
+	void append_closesAFinishedTabAndOpensANewOrder() {
+		MenuItemEntity rice = menuRepo.save(menuItem());
+		Integer served = tabs.append("T1", lines(rice, 1), Money.ofMinor(500)).tab().orderId();
+		jdbc.update("update orders set order_status = 'SERVED' where order_id = ?", served);
+
+		TabWriter.Round next = tabs.append("T1", lines(rice, 1), Money.ofMinor(500));
+
+		assertTrue(next.opened());
+		assertNotEquals(served, next.tab().orderId());
+		assertEquals(served, next.closed().orderId());
+		assertEquals(OrderStatus.NEW.name(), next.tab().orderStatus());
+		assertEquals(List.of("SERVED", "false"), jdbc.queryForObject(
+			"select order_status, tab_open from orders where order_id = ?",
+			(rs, i) -> List.of(rs.getString(1), String.valueOf(rs.getBoolean(2))), served));
+	}
+
+	@Test
+	void close_settlesTheTabSoTheNextRoundStartsANewOrder() {
+		MenuItemEntity rice = menuRepo.save(menuItem());
+		Integer tab = tabs.append("T1", lines(rice, 1), Money.ofMinor(500)).tab().orderId();
+
+		assertEquals(tab, tabs.close("T1").orderId());
+		assertNull(tabs.close("T1"));
+
+		TabWriter.Round next = tabs.append("T1", lines(rice, 1), Money.ofMinor(500));
+		assertTrue(next.opened());
+		assertNull(next.closed());
+		assertNotEquals(tab, next.tab().orderId());
+	}
+
+	@Test
+	void cancel_takesEveryRoundBackOutOfTheRollups() {
+		rollup = new SalesRollup(jdbc, txManager, true, 3_600_000);
+		MenuItemEntity rice = menuRepo.save(menuItem());
+		TabWriter.Round first = tabs.append("T1", lines(rice, 2), Money.ofMinor(1000));
+		rollup.orderCreated(round(first, rice, 2));
+		TabWriter.Round second = tabs.append("T1", lines(rice, 1), Money.ofMinor(500));
+		rollup.roundAppended(round(second, rice, 1));
+		orderRepo.flush();
+		rollup.flush();
+		assertEquals(3L, jdbc.queryForObject("select quantity from item_sales_hourly", Long.class));
+
+		Integer orderId = first.tab().orderId();
+		assertEquals(1, orderRepo.transitionStatus(orderId, List.of(OrderStatus.NEW.name()), OrderStatus.CANCELLED.name()));
+		rollup.statusChanged(orderId, OrderStatus.CANCELLED);
+		rollup.flush();
+
+		assertEquals(0L, jdbc.queryForObject("select quantity from item_sales_hourly", Long.class));
+		assertEquals(0, BigDecimal.ZERO.compareTo(jdbc.queryForObject(
+			"select revenue from table_sales_daily", BigDecimal.class)));
+		assertEquals(1L, jdbc.queryForObject("select cancelled_count from table_sales_daily", Long.class));
+		// Cancelling closed the tab too
+		assertEquals(0, jdbc.queryForObject("select count(*) from orders where tab_open", Integer.class));
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void append_concurrentFirstRoundsShareOneTab() throws Exception {
+		MenuItemEntity rice = menuRepo.save(menuItem());
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			for (int t = 0; t < 10; t++) {
+				String tableId = "T" + t;
+				CyclicBarrier start = new CyclicBarrier(2);
+				List<Future<TabWriter.Round>> rounds = new ArrayList<>();
+				for (int i = 0; i < 2; i++) {
+					rounds.add(pool.submit(() -> {
+						start.await();
+						return tabs.append(tableId, lines(rice, 1), Money.ofMinor(500));
+					}));
+				}
+				TabWriter.Round a = rounds.get(0).get(10, TimeUnit.SECONDS);
+				TabWriter.Round b = rounds.get(1).get(10, TimeUnit.SECONDS);
+
+				assertEquals(a.tab().orderId(), b.tab().orderId());
+				assertTrue(a.opened() != b.opened());
+				assertEquals(List.of(1, 1000), jdbc.queryForObject(
+					"select count(*), max(total_price * 100) from orders where table_id = ?",
+					(rs, i) -> List.of(rs.getInt(1), rs.getInt(2)), tableId));
+				assertEquals(2, jdbc.queryForObject(
+					"select count(*) from order_item where order_id = ?", Integer.class, a.tab().orderId()));
+			}
+		} finally {
+			pool.shutdownNow();
+			jdbc.update("delete from order_item");
+			jdbc.update("delete from orders");
+			jdbc.update("delete from menu_item");
+		}
+	}
+
+	private static MenuItemEntity menuItem() {
+		MenuItemEntity item = new MenuItemEntity();
+		item.setItemName("Fried Rice");
+		item.setItemPrice(BigDecimal.valueOf(5));
+		item.setSoldout(false);
+		return item;
+	}
+
+	private static List<OrderItemEntity> lines(MenuItemEntity menuItem, int quantity) {
+		OrderItemEntity line = new OrderItemEntity();
+		line.setMenuItem(menuItem);
+		line.setQuantity(quantity);
+		line.setUnitPrice(Money.ofMinor(500).toBigDecimal());
+		return List.of(line);
+	}
+
+	// The response the controller builds for a round: the tab's row with only the round's lines
+	private static OrderResponseDto round(TabWriter.Round round, MenuItemEntity menuItem, int quantity) {
+		OrderRow tab = round.tab();
+		OrderResponseDto dto = new OrderResponseDto();
+		dto.orderId = tab.orderId();
+		dto.tableId = tab.tableId();
+		dto.totalPrice = Money.of(tab.totalPrice());
+		dto.orderStatus = tab.orderStatus();
+		dto.createdAt = tab.createdAt();
+		OrderResponseDto.OrderItemResponseDto line = new OrderResponseDto.OrderItemResponseDto();
+		line.menuItemId = menuItem.getItemId();
+		line.quantity = quantity;
+		line.unitPrice = Money.ofMinor(500);
+		dto.orderItems.add(line);
+		return dto;
+	}
+}